@@ -0,0 +1,23 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+dependencies {
+    jmh(project(":mammoth-common"))
+    jmh(libs.jmh.core)
+    jmhAnnotationProcessor(libs.jmh.annprocess)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
+
+tasks.withType<Javadoc> {
+    enabled = false
+}
+
+tasks.withType<AbstractPublishToMaven> {
+    enabled = false
+}
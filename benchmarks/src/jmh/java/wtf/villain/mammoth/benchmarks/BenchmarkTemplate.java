@@ -0,0 +1,107 @@
+package wtf.villain.mammoth.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import static net.kyori.adventure.text.Component.text;
+
+/**
+ * A {@link MammothTemplate template} driving one of the benchmarked {@link Scenario scenarios}.
+ *
+ * <p>All components are created up front, so the measured time only contains the work
+ * done by the library.</p>
+ */
+public final class BenchmarkTemplate extends MammothTemplate {
+    /**
+     * The amount of slots changing per tick in the {@link Scenario#PARTIAL} scenario (10%).
+     */
+    public static final int PARTIAL_CHANGES = TEMPLATE_MAX_SIZE / 10;
+
+    private static final Component[][] TEXTS = new Component[2][TEMPLATE_MAX_SIZE];
+    private static final Component[] HEADERS = new Component[2];
+
+    static {
+        for (int i = 0; i < TEMPLATE_MAX_SIZE; i++) {
+            TEXTS[0][i] = text("Slot ", NamedTextColor.GRAY).append(text(i, NamedTextColor.WHITE));
+            TEXTS[1][i] = text("Slot ", NamedTextColor.GRAY).append(text(i, NamedTextColor.GOLD));
+        }
+
+        HEADERS[0] = text("Mammoth", NamedTextColor.GOLD);
+        HEADERS[1] = text("Mammoth", NamedTextColor.YELLOW);
+    }
+
+    private final Scenario scenario;
+    private int tick;
+
+    /**
+     * Creates a new template.
+     *
+     * @param scenario the scenario
+     */
+    public BenchmarkTemplate(@NotNull Scenario scenario) {
+        this.scenario = scenario;
+
+        if (scenario != Scenario.DYNAMIC) {
+            for (int i = 0; i < TEMPLATE_MAX_SIZE; i++) {
+                set(i, TEXTS[0][i]);
+            }
+
+            header(HEADERS[0]);
+        }
+    }
+
+    @Override
+    public void update() {
+        int tick = ++this.tick;
+
+        switch (this.scenario) {
+            case STATIC -> {
+                // Nothing changes
+            }
+            case DYNAMIC -> {
+                int frame = tick & 1;
+
+                for (int i = 0; i < TEMPLATE_MAX_SIZE; i++) {
+                    set(i, TEXTS[frame][i]);
+                }
+
+                header(HEADERS[frame]);
+            }
+            case PARTIAL -> {
+                // Every slot gets visited once per round, and alternates its text between rounds
+                int start = (tick * PARTIAL_CHANGES) % TEMPLATE_MAX_SIZE;
+                int frame = (tick / (TEMPLATE_MAX_SIZE / PARTIAL_CHANGES)) & 1;
+
+                for (int i = start; i < start + PARTIAL_CHANGES; i++) {
+                    set(i, TEXTS[frame][i]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean updateEntryStates() {
+        // Static and partial templates keep their last modification
+        return this.scenario == Scenario.DYNAMIC;
+    }
+
+    /**
+     * The benchmarked update patterns.
+     */
+    public enum Scenario {
+        /**
+         * Every slot is set once and never changes.
+         */
+        STATIC,
+        /**
+         * Every slot and the header changes on every tick.
+         */
+        DYNAMIC,
+        /**
+         * 10% of the slots change on every tick.
+         */
+        PARTIAL
+    }
+}
@@ -0,0 +1,76 @@
+package wtf.villain.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.tablist.MammothTabList;
+import wtf.villain.mammoth.tablist.impl.ModernMammothTabList;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the flushes of a single server tick, with and without batching.
+ *
+ * <p>Every flush of a channel with pending data ends in a write syscall, so the
+ * {@link Counters#flushes flushes} per tick approximate the syscalls per tick.
+ * The {@code DYNAMIC} scenario sends the entries and the header and footer of
+ * every viewer on every tick.</p>
+ *
+ * @see PlatformProvider#flush(UUID)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class FlushBenchmark {
+    @Param({"500", "5000"})
+    public int viewers;
+
+    @Param({"DYNAMIC", "PARTIAL"})
+    public BenchmarkTemplate.Scenario scenario;
+
+    @Param({"false", "true"})
+    public boolean batched;
+
+    private RecordingPlatformProvider platformProvider;
+    private MammothTabList[] tabLists;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.platformProvider = new RecordingPlatformProvider(this.batched);
+        this.tabLists = new MammothTabList[this.viewers];
+
+        for (int i = 0; i < this.viewers; i++) {
+            this.tabLists[i] = new ModernMammothTabList(UUID.randomUUID(), this.platformProvider, new BenchmarkTemplate(this.scenario));
+        }
+
+        // The initial population is not part of the steady state
+        for (MammothTabList tabList : this.tabLists) {
+            tabList.update();
+        }
+    }
+
+    @Benchmark
+    public void tick(Counters counters) {
+        this.platformProvider.reset();
+
+        for (MammothTabList tabList : this.tabLists) {
+            tabList.update();
+        }
+
+        counters.packets = this.platformProvider.packets();
+        counters.flushes = this.platformProvider.flushes();
+    }
+
+    /**
+     * The packets and flushes of the last tick.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long packets;
+        public long flushes;
+    }
+}
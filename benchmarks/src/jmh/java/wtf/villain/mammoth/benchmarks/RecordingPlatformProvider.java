@@ -0,0 +1,168 @@
+package wtf.villain.mammoth.benchmarks;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.platform.GameFeature;
+import wtf.villain.mammoth.platform.MammothChangeSet;
+import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.platform.UpdateAction;
+import wtf.villain.mammoth.template.MammothEntry;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * A {@link PlatformProvider platform provider} which doesn't talk to any client.
+ *
+ * <p>Baking captures the same values a real provider would read, and sending only
+ * counts packets and entries, so the benchmarks measure the library itself.</p>
+ *
+ * <p>Flushes are counted like a network platform would do them: once per packet, or in
+ * batched mode, once per {@link #flush(UUID) flush} of a player with written packets.</p>
+ */
+public final class RecordingPlatformProvider implements PlatformProvider {
+    private static final Set<GameFeature> FEATURES = EnumSet.allOf(GameFeature.class);
+
+    private long packets;
+    private long entries;
+    private long headerAndFooters;
+    private long flushes;
+
+    private final boolean batched;
+    private final Set<UUID> unflushed = new HashSet<>();
+    private Predicate<UUID> writable = uuid -> true;
+
+    /**
+     * Creates a provider flushing every packet.
+     */
+    public RecordingPlatformProvider() {
+        this(false);
+    }
+
+    /**
+     * Creates a provider.
+     *
+     * @param batched if the packets should be flushed once per update
+     */
+    public RecordingPlatformProvider(boolean batched) {
+        this.batched = batched;
+    }
+
+    @Override
+    @NotNull
+    public Set<GameFeature> supportedFeatures(@NotNull UUID uuid) {
+        return FEATURES;
+    }
+
+    @Override
+    @NotNull
+    public Object bakeEntry(@NotNull MammothEntry entry, @NotNull Set<GameFeature> gameFeatures) {
+        return new Baked(entry.currentText(), entry.currentSkin(), entry.currentPing());
+    }
+
+    @Override
+    public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull UpdateAction action, @NotNull Collection<Object> bakedEntries) {
+        this.packets++;
+        this.entries += bakedEntries.size();
+        this.written(uuid);
+    }
+
+    @Override
+    public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull MammothChangeSet changes) {
+        // Every action is merged into a single packet, like on 1.19.3+
+        this.packets++;
+        this.entries += changes.size();
+        this.written(uuid);
+    }
+
+    @Override
+    public void sendHeaderAndFooter(@NotNull UUID uuid, @Nullable Component header, @Nullable Component footer) {
+        this.packets++;
+        this.headerAndFooters++;
+        this.written(uuid);
+    }
+
+    @Override
+    public boolean writable(@NotNull UUID uuid) {
+        return this.writable.test(uuid);
+    }
+
+    /**
+     * Sets which players are writable, simulating slow clients.
+     *
+     * @param writable the predicate deciding if a player is writable
+     */
+    public void writable(@NotNull Predicate<UUID> writable) {
+        this.writable = writable;
+    }
+
+    @Override
+    public void flush(@NotNull UUID uuid) {
+        if (this.batched && this.unflushed.remove(uuid)) {
+            this.flushes++;
+        }
+    }
+
+    private void written(@NotNull UUID uuid) {
+        if (this.batched) {
+            this.unflushed.add(uuid);
+        } else {
+            this.flushes++;
+        }
+    }
+
+    /**
+     * Returns the amount of packets sent since the last {@link #reset()}.
+     *
+     * @return the amount of packets
+     */
+    public long packets() {
+        return this.packets;
+    }
+
+    /**
+     * Returns the amount of baked entries sent since the last {@link #reset()}.
+     *
+     * @return the amount of entries
+     */
+    public long entries() {
+        return this.entries;
+    }
+
+    /**
+     * Returns the amount of header and footer packets sent since the last {@link #reset()}.
+     *
+     * @return the amount of header and footer packets
+     */
+    public long headerAndFooters() {
+        return this.headerAndFooters;
+    }
+
+    /**
+     * Returns the amount of flushes since the last {@link #reset()}.
+     *
+     * @return the amount of flushes
+     */
+    public long flushes() {
+        return this.flushes;
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        this.packets = 0;
+        this.entries = 0;
+        this.headerAndFooters = 0;
+        this.flushes = 0;
+    }
+
+    private record Baked(Component text, TextureProperty skin, int ping) {
+    }
+}
@@ -0,0 +1,78 @@
+package wtf.villain.mammoth.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import wtf.villain.mammoth.tablist.MammothSharedTemplate;
+import wtf.villain.mammoth.tablist.MammothTabList;
+import wtf.villain.mammoth.tablist.impl.ModernMammothTabList;
+import wtf.villain.mammoth.tablist.impl.SharedMammothTabList;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single server tick: calling {@link MammothTabList#update()} for every viewer.
+ *
+ * <p>Run it with the {@code gc} profiler (enabled by default in the build) to get the
+ * allocation rate next to the time per tick. Divide the results by {@link #viewers}
+ * to get the cost per player.</p>
+ *
+ * <p>With {@link #shared} enabled, every viewer displays the same {@link MammothSharedTemplate shared template},
+ * which gets rendered once per tick.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TabListUpdateBenchmark {
+    @Param({"1", "500", "5000"})
+    public int viewers;
+
+    @Param({"STATIC", "DYNAMIC", "PARTIAL"})
+    public BenchmarkTemplate.Scenario scenario;
+
+    @Param({"false", "true"})
+    public boolean shared;
+
+    private RecordingPlatformProvider platformProvider;
+    private MammothSharedTemplate sharedTemplate;
+    private MammothTabList[] tabLists;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.platformProvider = new RecordingPlatformProvider();
+        this.tabLists = new MammothTabList[this.viewers];
+
+        if (this.shared) {
+            this.sharedTemplate = new MammothSharedTemplate(this.platformProvider, new BenchmarkTemplate(this.scenario));
+        }
+
+        for (int i = 0; i < this.viewers; i++) {
+            this.tabLists[i] = this.shared
+                ? new SharedMammothTabList(UUID.randomUUID(), this.platformProvider, this.sharedTemplate, new Overrides())
+                : new ModernMammothTabList(UUID.randomUUID(), this.platformProvider, new BenchmarkTemplate(this.scenario));
+        }
+
+        // The initial population is not part of the steady state
+        tick();
+        this.platformProvider.reset();
+    }
+
+    @Benchmark
+    public long tick() {
+        if (this.sharedTemplate != null) {
+            this.sharedTemplate.render();
+        }
+
+        for (MammothTabList tabList : this.tabLists) {
+            tabList.update();
+        }
+
+        return this.platformProvider.entries();
+    }
+
+    private static final class Overrides extends MammothTemplate {
+    }
+}
@@ -1,5 +1,12 @@
 dependencies {
     api(libs.adventure.api)
+
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.launcher)
+}
+
+tasks.test {
+    useJUnitPlatform()
 }
 
 tasks.withType<Javadoc> {
@@ -3,10 +3,13 @@ package wtf.villain.mammoth;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.tablist.MammothSharedTemplate;
 import wtf.villain.mammoth.tablist.MammothTabList;
 import wtf.villain.mammoth.tablist.impl.ModernMammothTabList;
+import wtf.villain.mammoth.tablist.impl.SharedMammothTabList;
 import wtf.villain.mammoth.template.MammothTemplate;
 import wtf.villain.mammoth.tablist.MammothTabListFactory;
+import wtf.villain.mammoth.tablist.MammothTabListManager;
 
 import java.util.UUID;
 
@@ -15,10 +18,12 @@ import java.util.UUID;
  *
  * <p>This class is a utility for creating {@link MammothTabList tab lists} for players.</p>
  *
- * <p>Every developer must track the provided tab lists for themselves.</p>
+ * <p>Every developer must track the provided tab lists for themselves, or register them
+ * in a {@link MammothTabListManager manager}.</p>
  *
  * @see MammothTemplate
  * @see MammothTabList
+ * @see MammothTabListManager
  */
 public class Mammoth {
     /**
@@ -61,4 +66,30 @@ public class Mammoth {
     public final MammothTabList provideTabList(@NotNull UUID uuid, @NotNull MammothTemplate template) {
         return this.factory.provideTabList(uuid, this.platformProvider, template);
     }
+
+    /**
+     * Creates a {@link MammothSharedTemplate shared template} from the given template.
+     *
+     * @param template the template
+     * @return a new {@link MammothSharedTemplate shared template}
+     */
+    @NotNull
+    public final MammothSharedTemplate shareTemplate(@NotNull MammothTemplate template) {
+        return new MammothSharedTemplate(this.platformProvider, template);
+    }
+
+    /**
+     * Provides a {@link MammothTabList tab list} displaying a {@link MammothSharedTemplate shared template}
+     * for the given player.
+     *
+     * @param uuid      the player
+     * @param shared    the shared template
+     * @param overrides the template holding the overrides of the player
+     * @return a new {@link MammothTabList tab list}
+     * @see SharedMammothTabList
+     */
+    @NotNull
+    public final MammothTabList provideSharedTabList(@NotNull UUID uuid, @NotNull MammothSharedTemplate shared, @NotNull MammothTemplate overrides) {
+        return new SharedMammothTabList(uuid, this.platformProvider, shared, overrides);
+    }
 }
\ No newline at end of file
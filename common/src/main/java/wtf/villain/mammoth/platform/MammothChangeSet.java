@@ -0,0 +1,113 @@
+package wtf.villain.mammoth.platform;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A reusable set of baked entry changes, sent to a player at once.
+ *
+ * <p>Entries with a changed skin have to be added again, so they are collected as {@link UpdateAction#ADD}.
+ * Every other entry is collected as {@link UpdateAction#UPDATE_NAME} and / or {@link UpdateAction#UPDATE_LATENCY}.</p>
+ *
+ * @see PlatformProvider#send(java.util.UUID, java.util.Set, MammothChangeSet)
+ */
+@ApiStatus.Internal
+public final class MammothChangeSet {
+    /**
+     * The actions a change set consists of, in the order they should be sent.
+     */
+    public static final List<UpdateAction> ACTIONS = List.of(UpdateAction.ADD, UpdateAction.UPDATE_NAME, UpdateAction.UPDATE_LATENCY);
+
+    private final List<Object> added;
+    private final List<Object> named;
+    private final List<Object> latency;
+
+    /**
+     * Creates an empty change set.
+     */
+    public MammothChangeSet() {
+        this.added = new ArrayList<>();
+        this.named = new ArrayList<>();
+        this.latency = new ArrayList<>();
+    }
+
+    /**
+     * Adds a baked entry according to its changes.
+     *
+     * @param baked       the baked entry
+     * @param skinChanged whether the skin of the entry changed
+     * @param textChanged whether the text of the entry changed
+     * @param pingChanged whether the ping of the entry changed
+     */
+    public void add(@NotNull Object baked, boolean skinChanged, boolean textChanged, boolean pingChanged) {
+        if (skinChanged) {
+            this.added.add(baked);
+        } else {
+            if (textChanged) {
+                this.named.add(baked);
+            }
+
+            if (pingChanged) {
+                this.latency.add(baked);
+            }
+        }
+    }
+
+    /**
+     * Adds a baked entry using the given action.
+     *
+     * @param action the action
+     * @param baked  the baked entry
+     * @throws IllegalArgumentException if the action is {@link UpdateAction#REMOVE}
+     */
+    public void add(@NotNull UpdateAction action, @NotNull Object baked) {
+        entries(action).add(baked);
+    }
+
+    /**
+     * Returns the baked entries collected for the given action.
+     *
+     * @param action the action
+     * @return the baked entries
+     * @throws IllegalArgumentException if the action is {@link UpdateAction#REMOVE}
+     */
+    @NotNull
+    public List<Object> entries(@NotNull UpdateAction action) {
+        return switch (action) {
+            case ADD -> this.added;
+            case UPDATE_NAME -> this.named;
+            case UPDATE_LATENCY -> this.latency;
+            case REMOVE -> throw new IllegalArgumentException("removals are not part of change sets");
+        };
+    }
+
+    /**
+     * Returns if there are no changes in this change set.
+     *
+     * @return {@code true} if there are no changes, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.added.isEmpty() && this.named.isEmpty() && this.latency.isEmpty();
+    }
+
+    /**
+     * Returns the amount of baked entries in this change set. Entries with multiple changes are counted multiple times.
+     *
+     * @return the amount of baked entries
+     */
+    public int size() {
+        return this.added.size() + this.named.size() + this.latency.size();
+    }
+
+    /**
+     * Removes every change from this change set.
+     */
+    public void clear() {
+        this.added.clear();
+        this.named.clear();
+        this.latency.clear();
+    }
+}
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import wtf.villain.mammoth.template.MammothEntry;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
@@ -20,6 +21,7 @@ import java.util.UUID;
  * </ul>
  *
  * @see GameFeature
+ * @see MammothChangeSet
  * @see UpdateAction
  */
 @ApiStatus.Experimental
@@ -36,6 +38,8 @@ public interface PlatformProvider {
     /**
      * Bakes the given {@link MammothEntry tab list entry} into a format what can be sent to players.
      *
+     * <p>Baked entries may be sent to several players concurrently, so they must never be changed once returned.</p>
+     *
      * @param entry        the entry
      * @param gameFeatures the supported features
      * @return the baked entries
@@ -53,6 +57,55 @@ public interface PlatformProvider {
      */
     void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull UpdateAction action, @NotNull Collection<Object> bakedEntries);
 
+    /**
+     * Sends every change of a {@link MammothChangeSet change set} for the player.
+     *
+     * <p>Nothing is sent for empty actions. Platforms supporting {@link GameFeature#SEPARATE_INFO_PACKETS}
+     * should merge the name and latency updates into a single packet, but send the added entries on their own,
+     * so the updated entries aren't sent with a whole profile.</p>
+     *
+     * @param uuid         the player
+     * @param gameFeatures the supported features
+     * @param changes      the changes
+     */
+    default void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull MammothChangeSet changes) {
+        for (UpdateAction action : MammothChangeSet.ACTIONS) {
+            List<Object> entries = changes.entries(action);
+
+            if (!entries.isEmpty()) {
+                send(uuid, gameFeatures, action, entries);
+            }
+        }
+    }
+
+    /**
+     * Bakes a snapshot adding every given baked entry at once.
+     *
+     * <p>Snapshots are baked once for many players, and can be {@link #sendSnapshot(UUID, Set, Object) sent}
+     * multiple times. Platforms should prepare as much of the payload as possible, so sending a snapshot
+     * doesn't cost more than copying it.</p>
+     *
+     * @param gameFeatures the supported features
+     * @param bakedEntries the baked entries
+     * @return the baked snapshot
+     */
+    @NotNull
+    default Object bakeSnapshot(@NotNull Set<GameFeature> gameFeatures, @NotNull List<Object> bakedEntries) {
+        return List.copyOf(bakedEntries);
+    }
+
+    /**
+     * Sends a {@link #bakeSnapshot(Set, List) baked snapshot} for the player.
+     *
+     * @param uuid         the player
+     * @param gameFeatures the supported features
+     * @param snapshot     the baked snapshot
+     */
+    @SuppressWarnings("unchecked")
+    default void sendSnapshot(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull Object snapshot) {
+        send(uuid, gameFeatures, UpdateAction.ADD, (List<Object>) snapshot);
+    }
+
     /**
      * Sends a header and footer change for the player.
      *
@@ -61,4 +114,39 @@ public interface PlatformProvider {
      * @param footer the footer
      */
     void sendHeaderAndFooter(@NotNull UUID uuid, @Nullable Component header, @Nullable Component footer);
+
+    /**
+     * Returns the current latency of the player.
+     *
+     * @param uuid the player
+     * @return the latency in milliseconds, or {@code -1} if it's unknown
+     */
+    default int latency(@NotNull UUID uuid) {
+        return -1;
+    }
+
+    /**
+     * Returns if data can be sent to the player without piling up.
+     *
+     * <p>Tab lists stop sending while the player isn't writable, and send their latest
+     * state at once as soon as the player is writable again.</p>
+     *
+     * @param uuid the player
+     * @return {@code true} if the player is writable, {@code false} otherwise
+     */
+    default boolean writable(@NotNull UUID uuid) {
+        return true;
+    }
+
+    /**
+     * Flushes the data sent for the player.
+     *
+     * <p>Tab lists call this method once after every update, so platforms may write the
+     * packets of an update without flushing them, and flush them all at once here.</p>
+     *
+     * @param uuid the player
+     */
+    default void flush(@NotNull UUID uuid) {
+        // Packets are flushed when they're sent by default
+    }
 }
\ No newline at end of file
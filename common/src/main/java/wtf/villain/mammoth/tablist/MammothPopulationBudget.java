@@ -0,0 +1,78 @@
+package wtf.villain.mammoth.tablist;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The amount of entries the {@link MammothTabList tab lists} of a {@link MammothTabListManager manager} may send
+ * to their players per tick, until every entry was sent once.
+ *
+ * <p>The budget is shared by every shard, and refilled at the start of every tick.</p>
+ *
+ * @see MammothTabListManager#populationBudget(int)
+ */
+final class MammothPopulationBudget {
+    private final AtomicInteger remaining;
+
+    private volatile int budget;
+
+    MammothPopulationBudget() {
+        this.remaining = new AtomicInteger();
+        this.budget = MammothTabListManager.UNLIMITED_BUDGET;
+    }
+
+    /**
+     * Refills the budget.
+     */
+    void reset() {
+        this.remaining.set(this.budget);
+    }
+
+    /**
+     * Takes up to {@code wanted} entries from the budget.
+     *
+     * @param wanted the amount of entries
+     * @return the amount of entries which may be sent
+     */
+    int acquire(int wanted) {
+        if (!limited()) {
+            return wanted;
+        }
+
+        while (true) {
+            int remaining = this.remaining.get();
+
+            if (remaining <= 0) {
+                return 0;
+            }
+
+            int granted = Math.min(remaining, wanted);
+
+            if (this.remaining.compareAndSet(remaining, remaining - granted)) {
+                return granted;
+            }
+        }
+    }
+
+    /**
+     * Gives back entries which were acquired, but weren't sent.
+     *
+     * @param unused the amount of entries
+     */
+    void release(int unused) {
+        if (unused > 0 && limited()) {
+            this.remaining.addAndGet(unused);
+        }
+    }
+
+    boolean limited() {
+        return this.budget != MammothTabListManager.UNLIMITED_BUDGET;
+    }
+
+    int budget() {
+        return this.budget;
+    }
+
+    void budget(int budget) {
+        this.budget = budget;
+    }
+}
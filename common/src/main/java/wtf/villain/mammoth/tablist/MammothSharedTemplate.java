@@ -0,0 +1,307 @@
+package wtf.villain.mammoth.tablist;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.platform.GameFeature;
+import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.template.MammothEntry;
+import wtf.villain.mammoth.template.MammothHeaderAndFooter;
+import wtf.villain.mammoth.template.MammothSlotSet;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link MammothTemplate template} shared between multiple viewers.
+ *
+ * <p>The template is updated, diffed and baked once per {@link #render() render}, and every subscribed
+ * {@link MammothTabList tab list} sends the same baked changes to its player. The cost of a shared
+ * template therefore scales with the amount of distinct templates instead of the amount of players.</p>
+ *
+ * <p>Shared templates must be rendered before the tab lists using them get updated. Templates shared
+ * using a {@link MammothTabListManager manager} are rendered by the manager on every tick.</p>
+ *
+ * @see MammothTabListManager#share(MammothTemplate)
+ */
+public final class MammothSharedTemplate {
+    /**
+     * The change flag of a skin change.
+     */
+    @ApiStatus.Internal
+    public static final int SKIN_CHANGED = 1;
+
+    /**
+     * The change flag of a text change.
+     */
+    @ApiStatus.Internal
+    public static final int TEXT_CHANGED = 1 << 1;
+
+    /**
+     * The change flag of a ping change.
+     */
+    @ApiStatus.Internal
+    public static final int PING_CHANGED = 1 << 2;
+
+    private final PlatformProvider platformProvider;
+    private final MammothTemplate template;
+    private final Map<Set<GameFeature>, Object[]> frames;
+    private final Map<Set<GameFeature>, Snapshot> snapshots;
+    private final byte[] changes;
+    private final MammothSlotSet dirtySlots;
+    private final MammothSlotSet changedSlots;
+
+    private volatile long revision;
+    private Component header;
+    private Component footer;
+
+    /**
+     * Creates a new shared template.
+     *
+     * @param platformProvider the platform provider
+     * @param template         the template
+     */
+    public MammothSharedTemplate(@NotNull PlatformProvider platformProvider, @NotNull MammothTemplate template) {
+        this.platformProvider = platformProvider;
+        this.template = template;
+        this.frames = new ConcurrentHashMap<>();
+        this.snapshots = new ConcurrentHashMap<>();
+        this.changes = new byte[MammothTemplate.TEMPLATE_MAX_SIZE];
+        this.dirtySlots = new MammothSlotSet();
+        this.changedSlots = new MammothSlotSet();
+    }
+
+    /**
+     * Updates the template, and bakes the changed entries for every subscribed set of {@link GameFeature features}.
+     *
+     * <p>This method must not be called concurrently with the update of the subscribed tab lists.</p>
+     */
+    public void render() {
+        this.template.update();
+        this.template.collectDirtySlots(this.dirtySlots);
+
+        MammothEntry[] entries = this.template.entries();
+        boolean updateEntryStates = this.template.updateEntryStates();
+
+        // The changes of the previous render are cleared lazily
+        for (int i = this.changedSlots.next(0); i >= 0; i = this.changedSlots.next(i + 1)) {
+            this.changes[i] = 0;
+        }
+
+        this.changedSlots.clear();
+
+        for (int i = this.dirtySlots.next(0); i >= 0; i = this.dirtySlots.next(i + 1)) {
+            MammothEntry entry = entries[i];
+            entry.update();
+
+            // If the entry has nothing in it, fall back to the default entry provider
+            if (!entry.dirty() && entry.entryProvider() == null) {
+                this.template.fallback(i);
+                entry.update();
+            }
+
+            int changes = 0;
+
+            if (entry.skinChanged()) {
+                changes |= SKIN_CHANGED;
+            }
+
+            if (entry.textChanged()) {
+                changes |= TEXT_CHANGED;
+            }
+
+            if (entry.pingChanged()) {
+                changes |= PING_CHANGED;
+            }
+
+            this.changes[i] = (byte) changes;
+
+            if (changes != 0) {
+                this.changedSlots.add(i);
+
+                for (Map.Entry<Set<GameFeature>, Object[]> frame : this.frames.entrySet()) {
+                    // Frames of newly subscribed features are baked fully below
+                    if (frame.getValue().length != 0) {
+                        frame.getValue()[i] = this.platformProvider.bakeEntry(entry, frame.getKey());
+                    }
+                }
+            }
+
+            if (updateEntryStates) {
+                entry.resetState();
+            }
+        }
+
+        for (Map.Entry<Set<GameFeature>, Object[]> frame : this.frames.entrySet()) {
+            if (frame.getValue().length == 0) {
+                frame.setValue(bakeFrame(frame.getKey()));
+            }
+        }
+
+        MammothHeaderAndFooter headerAndFooter = this.template.headerAndFooter();
+        headerAndFooter.update();
+        this.header = headerAndFooter.currentHeader();
+        this.footer = headerAndFooter.currentFooter();
+
+        if (updateEntryStates) {
+            headerAndFooter.resetState();
+        }
+
+        this.revision++;
+    }
+
+    /**
+     * Subscribes the given set of {@link GameFeature features}, so the next {@link #render() render}
+     * bakes the entries for them.
+     *
+     * @param gameFeatures the features
+     */
+    @ApiStatus.Internal
+    public void subscribe(@NotNull Set<GameFeature> gameFeatures) {
+        this.frames.putIfAbsent(gameFeatures, new Object[0]);
+    }
+
+    /**
+     * Returns the revision of this template. The revision gets incremented on every {@link #render() render}.
+     *
+     * @return the revision
+     */
+    @ApiStatus.Internal
+    public long revision() {
+        return this.revision;
+    }
+
+    /**
+     * Returns the baked entries for the given set of {@link GameFeature features}.
+     *
+     * @param gameFeatures the features
+     * @return the baked entries, or {@code null} if the features weren't rendered yet
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Object[] frame(@NotNull Set<GameFeature> gameFeatures) {
+        Object[] frame = this.frames.get(gameFeatures);
+        return frame == null || frame.length == 0 ? null : frame;
+    }
+
+    /**
+     * Returns the {@link PlatformProvider#bakeSnapshot(Set, List) baked snapshot} adding every used entry of the
+     * frame of the given set of {@link GameFeature features}.
+     *
+     * <p>The snapshot is baked once per {@link #render() render}, by the first tab list requesting it, and
+     * sent to every tab list synchronizing fully during the same render.</p>
+     *
+     * @param gameFeatures the features
+     * @return the baked snapshot, or {@code null} if the features weren't rendered yet
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Object snapshot(@NotNull Set<GameFeature> gameFeatures) {
+        // The revision must be read before the frame, as it publishes the rendered data
+        long revision = this.revision;
+        Object[] frame = frame(gameFeatures);
+
+        if (frame == null) {
+            return null;
+        }
+
+        Snapshot snapshot = this.snapshots.get(gameFeatures);
+
+        if (snapshot != null && snapshot.revision == revision) {
+            return snapshot.payload;
+        }
+
+        // Tab lists synchronizing at the same time might bake the snapshot twice, only one of them is kept
+        MammothSlotSet usedSlots = this.template.usedSlots();
+        List<Object> baked = new ArrayList<>(usedSlots.size());
+
+        for (int i = usedSlots.next(0); i >= 0; i = usedSlots.next(i + 1)) {
+            baked.add(frame[i]);
+        }
+
+        snapshot = new Snapshot(revision, this.platformProvider.bakeSnapshot(gameFeatures, baked));
+        this.snapshots.put(gameFeatures, snapshot);
+        return snapshot.payload;
+    }
+
+    /**
+     * Returns the change flags of the entry at the given position since the previous {@link #render() render}.
+     *
+     * @param pos the position of the entry
+     * @return the change flags
+     * @see #SKIN_CHANGED
+     * @see #TEXT_CHANGED
+     * @see #PING_CHANGED
+     */
+    @ApiStatus.Internal
+    public int changes(int pos) {
+        return this.changes[pos];
+    }
+
+    /**
+     * Returns the positions of the entries which changed since the previous {@link #render() render}.
+     *
+     * @return the positions
+     */
+    @NotNull
+    @ApiStatus.Internal
+    public MammothSlotSet changedSlots() {
+        return this.changedSlots;
+    }
+
+    /**
+     * Returns the header of the last {@link #render() render}.
+     *
+     * @return the header
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Component header() {
+        return this.header;
+    }
+
+    /**
+     * Returns the footer of the last {@link #render() render}.
+     *
+     * @return the footer
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public Component footer() {
+        return this.footer;
+    }
+
+    /**
+     * Returns the shared {@link MammothTemplate template}.
+     *
+     * @param <T> the type of the template
+     * @return the template
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public <T extends MammothTemplate> T template() {
+        return (T) this.template;
+    }
+
+    @NotNull
+    private Object[] bakeFrame(@NotNull Set<GameFeature> gameFeatures) {
+        MammothEntry[] entries = this.template.entries();
+        MammothSlotSet usedSlots = this.template.usedSlots();
+        Object[] frame = new Object[MammothTemplate.TEMPLATE_MAX_SIZE];
+
+        // Unused entries are never sent, so they aren't baked either
+        for (int i = usedSlots.next(0); i >= 0; i = usedSlots.next(i + 1)) {
+            frame[i] = this.platformProvider.bakeEntry(entries[i], gameFeatures);
+        }
+
+        return frame;
+    }
+
+    private record Snapshot(long revision, @NotNull Object payload) {
+    }
+}
@@ -34,6 +34,11 @@ public abstract class MammothTabList {
      */
     protected final Set<GameFeature> gameFeatures;
 
+    // Set by the manager before the tab list gets registered
+    MammothPopulationBudget populationBudget;
+
+    private volatile long backpressuredUpdates;
+
     /**
      * Creates a new tab list provider.
      *
@@ -58,6 +63,67 @@ public abstract class MammothTabList {
      */
     protected abstract void destroy();
 
+    /**
+     * Returns if the player is {@link PlatformProvider#writable(UUID) writable}, and counts the update
+     * as backpressured if not.
+     *
+     * @return {@code true} if the player is writable, {@code false} otherwise
+     */
+    protected final boolean writable() {
+        if (this.platformProvider.writable(this.uuid)) {
+            return true;
+        }
+
+        // Only the updating thread writes the counter
+        this.backpressuredUpdates++;
+        return false;
+    }
+
+    /**
+     * Returns if the entries sent before every entry was sent once are limited by the
+     * {@link MammothTabListManager#populationBudget(int) population budget} of a manager.
+     *
+     * @return {@code true} if the population is limited, {@code false} otherwise
+     */
+    protected final boolean populationLimited() {
+        MammothPopulationBudget budget = this.populationBudget;
+        return budget != null && budget.limited();
+    }
+
+    /**
+     * Takes up to {@code wanted} entries from the {@link MammothTabListManager#populationBudget(int) population budget}
+     * of the current tick. Tab lists only take from the budget until every entry was sent once.
+     *
+     * @param wanted the amount of entries
+     * @return the amount of entries which may be sent, {@code wanted} if the population isn't limited
+     */
+    protected final int acquirePopulation(int wanted) {
+        MammothPopulationBudget budget = this.populationBudget;
+        return budget != null ? budget.acquire(wanted) : wanted;
+    }
+
+    /**
+     * Gives back entries {@link #acquirePopulation(int) acquired} during this update, which weren't sent.
+     *
+     * @param unused the amount of entries
+     */
+    protected final void releasePopulation(int unused) {
+        MammothPopulationBudget budget = this.populationBudget;
+
+        if (budget != null) {
+            budget.release(unused);
+        }
+    }
+
+    /**
+     * Returns the amount of updates which were held back, because the player wasn't writable.
+     *
+     * @return the amount of backpressured updates
+     */
+    public final long backpressuredUpdates() {
+        return this.backpressuredUpdates;
+    }
+
     /**
      * Returns the {@link MammothTemplate tab list template} used by this {@link MammothTabList provider}.
      *
@@ -0,0 +1,576 @@
+package wtf.villain.mammoth.tablist;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.Mammoth;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tracks and updates {@link MammothTabList tab lists}.
+ *
+ * <p>Tab lists are registered by the uuid of their player, and are spread across a fixed amount of shards.
+ * On every {@link #tick() tick}, every shard updates its tab lists on the worker executor, so the update
+ * work scales with the amount of workers instead of running as one serial loop.</p>
+ *
+ * <p>Unregistered tab lists are {@link MammothTabList#destroy() destroyed} by their shard before its next
+ * update, so a tab list is never updated and destroyed at the same time.</p>
+ *
+ * <p>Templates {@link #share(MammothTemplate) shared} using the manager are rendered at the start of every tick,
+ * before any of the tab lists get updated. {@link #group(Function, Function) Viewer groups} are regrouped right
+ * before that.</p>
+ *
+ * <p>The manager can either be ticked by the caller, or it can tick itself using {@link #start(Duration)}.</p>
+ *
+ * @see Mammoth
+ * @see MammothSharedTemplate
+ * @see MammothViewerGroups
+ * @see MammothTickReport
+ */
+public final class MammothTabListManager implements AutoCloseable {
+    /**
+     * The default tick rate, matching the game's tick rate.
+     */
+    public static final Duration DEFAULT_TICK_RATE = Duration.ofMillis(50);
+
+    /**
+     * The population budget of managers letting every tab list send all of its entries right away.
+     */
+    public static final int UNLIMITED_BUDGET = Integer.MAX_VALUE;
+
+    private final Mammoth mammoth;
+    private final Shard[] shards;
+    private final List<MammothSharedTemplate> sharedTemplates;
+    private final List<MammothViewerGroups<?>> viewerGroups;
+    private final MammothPopulationBudget populationBudget;
+    private final ExecutorService workers;
+    private final boolean ownsWorkers;
+    private final Object tickLock;
+
+    private volatile ScheduledExecutorService ticker;
+    private volatile Consumer<MammothTickReport> reportHandler;
+    private volatile BiConsumer<UUID, RuntimeException> errorHandler;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new manager using a shard and a worker thread for every available processor.
+     *
+     * @param mammoth the Mammoth instance providing the tab lists
+     */
+    public MammothTabListManager(@NotNull Mammoth mammoth) {
+        this(mammoth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new manager using a worker thread for every shard.
+     *
+     * @param mammoth the Mammoth instance providing the tab lists
+     * @param shards  the amount of shards
+     */
+    public MammothTabListManager(@NotNull Mammoth mammoth, int shards) {
+        this(mammoth, shards, Executors.newFixedThreadPool(shards, threadFactory("mammoth-worker-")), true);
+    }
+
+    /**
+     * Creates a new manager using the given worker executor.
+     *
+     * <p>The executor is not shut down by the manager. On Java 21 and newer,
+     * a virtual thread per task executor can be used as well.</p>
+     *
+     * @param mammoth the Mammoth instance providing the tab lists
+     * @param shards  the amount of shards
+     * @param workers the executor updating the shards
+     */
+    public MammothTabListManager(@NotNull Mammoth mammoth, int shards, @NotNull ExecutorService workers) {
+        this(mammoth, shards, workers, false);
+    }
+
+    private MammothTabListManager(@NotNull Mammoth mammoth, int shards, @NotNull ExecutorService workers, boolean ownsWorkers) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("at least one shard is required");
+        }
+
+        this.mammoth = mammoth;
+        this.shards = new Shard[shards];
+        this.sharedTemplates = new CopyOnWriteArrayList<>();
+        this.viewerGroups = new CopyOnWriteArrayList<>();
+        this.populationBudget = new MammothPopulationBudget();
+        this.workers = workers;
+        this.ownsWorkers = ownsWorkers;
+        this.tickLock = new Object();
+
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new Shard();
+        }
+    }
+
+    /**
+     * Provides and registers a {@link MammothTabList tab list} for the given player.
+     *
+     * <p>If the player already had a tab list, the previous one gets destroyed.</p>
+     *
+     * @param uuid     the player
+     * @param template the template
+     * @return the registered {@link MammothTabList tab list}, or {@code null} if the
+     * factory failed to create a tab list
+     */
+    @Nullable
+    public MammothTabList register(@NotNull UUID uuid, @NotNull MammothTemplate template) {
+        MammothTabList tabList = this.mammoth.provideTabList(uuid, template);
+
+        if (tabList != null) {
+            register(uuid, tabList);
+        }
+
+        return tabList;
+    }
+
+    /**
+     * Registers a {@link MammothTabList tab list} for the given player.
+     *
+     * <p>If the player already had a tab list, the previous one gets destroyed right away on the calling thread,
+     * after the shard of the player finished updating if it's being updated.</p>
+     *
+     * @param uuid    the player
+     * @param tabList the tab list
+     */
+    public void register(@NotNull UUID uuid, @NotNull MammothTabList tabList) {
+        ensureOpen();
+
+        tabList.populationBudget = this.populationBudget;
+
+        Shard shard = shard(uuid);
+
+        // The previous tab list removes the same entries the new one adds, so it's destroyed before the new one can update
+        synchronized (shard.lock) {
+            MammothTabList previous = shard.tabLists.put(uuid, tabList);
+
+            if (previous != null && previous != tabList) {
+                shard.destroy(previous, new AtomicInteger());
+            }
+        }
+    }
+
+    /**
+     * Provides and registers a {@link MammothTabList tab list} displaying a {@link MammothSharedTemplate shared template}
+     * for the given player.
+     *
+     * <p>If the player already had a tab list, the previous one gets destroyed.</p>
+     *
+     * @param uuid   the player
+     * @param shared the shared template
+     * @return the registered {@link MammothTabList tab list}
+     */
+    @NotNull
+    public MammothTabList register(@NotNull UUID uuid, @NotNull MammothSharedTemplate shared) {
+        return register(uuid, shared, new MammothTemplate() {
+        });
+    }
+
+    /**
+     * Provides and registers a {@link MammothTabList tab list} displaying a {@link MammothSharedTemplate shared template}
+     * for the given player.
+     *
+     * <p>If the player already had a tab list, the previous one gets destroyed.</p>
+     *
+     * @param uuid      the player
+     * @param shared    the shared template
+     * @param overrides the template holding the overrides of the player
+     * @return the registered {@link MammothTabList tab list}
+     */
+    @NotNull
+    public MammothTabList register(@NotNull UUID uuid, @NotNull MammothSharedTemplate shared, @NotNull MammothTemplate overrides) {
+        MammothTabList tabList = this.mammoth.provideSharedTabList(uuid, shared, overrides);
+        register(uuid, tabList);
+        return tabList;
+    }
+
+    /**
+     * Unregisters the {@link MammothTabList tab list} of the given player.
+     *
+     * <p>The tab list gets destroyed by its shard on the next {@link #tick() tick}.</p>
+     *
+     * @param uuid the player
+     * @return {@code true} if the player had a tab list, {@code false} otherwise
+     */
+    public boolean unregister(@NotNull UUID uuid) {
+        Shard shard = shard(uuid);
+        MammothTabList previous = shard.tabLists.remove(uuid);
+
+        if (previous != null) {
+            shard.destroyed.add(previous);
+        }
+
+        return previous != null;
+    }
+
+    /**
+     * Creates a {@link MammothSharedTemplate shared template}, which gets rendered on every tick.
+     *
+     * @param template the template
+     * @return a new {@link MammothSharedTemplate shared template}
+     */
+    @NotNull
+    public MammothSharedTemplate share(@NotNull MammothTemplate template) {
+        ensureOpen();
+
+        MammothSharedTemplate shared = this.mammoth.shareTemplate(template);
+        this.sharedTemplates.add(shared);
+        return shared;
+    }
+
+    /**
+     * Stops rendering the given {@link MammothSharedTemplate shared template}.
+     *
+     * <p>Tab lists still displaying the template keep displaying its last render.</p>
+     *
+     * @param shared the shared template
+     * @return {@code true} if the template was rendered by this manager, {@code false} otherwise
+     */
+    public boolean unshare(@NotNull MammothSharedTemplate shared) {
+        return this.sharedTemplates.remove(shared);
+    }
+
+    /**
+     * Creates {@link MammothViewerGroups viewer groups}, rendering a template once per distinct key of its viewers.
+     *
+     * <p>The key function is evaluated on the ticking thread, and must not return {@code null}.</p>
+     *
+     * @param keyFunction     the function providing the key of a player
+     * @param templateFactory the factory creating the template of a key
+     * @param <K>             the type of the keys
+     * @return new {@link MammothViewerGroups viewer groups}
+     */
+    @NotNull
+    public <K> MammothViewerGroups<K> group(@NotNull Function<UUID, ? extends K> keyFunction, @NotNull Function<? super K, ? extends MammothTemplate> templateFactory) {
+        ensureOpen();
+
+        MammothViewerGroups<K> groups = new MammothViewerGroups<>(this, keyFunction, templateFactory);
+        this.viewerGroups.add(groups);
+        return groups;
+    }
+
+    /**
+     * Returns the {@link MammothTabList tab list} of the given player.
+     *
+     * @param uuid the player
+     * @return the tab list, or {@code null} if the player has no registered tab list
+     */
+    @Nullable
+    public MammothTabList tabList(@NotNull UUID uuid) {
+        return shard(uuid).tabLists.get(uuid);
+    }
+
+    /**
+     * Returns the amount of registered {@link MammothTabList tab lists}.
+     *
+     * @return the amount of tab lists
+     */
+    public int size() {
+        int size = 0;
+
+        for (Shard shard : this.shards) {
+            size += shard.tabLists.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Sets the amount of entries sent per tick by all tab lists which didn't send every entry once yet.
+     *
+     * <p>Without a budget, every joining player receives all of its entries on its first update, so players
+     * joining at the same time (like after a restart) cause a spike of packets. With a budget, the first
+     * entries of the joining players are spread across the next ticks, in position order, so the first
+     * columns are displayed first. The header and footer are sent once every entry was sent.</p>
+     *
+     * <p>Tab lists displaying a {@link MammothSharedTemplate shared template} send their entries at once,
+     * as soon as any budget is left.</p>
+     *
+     * @param budget the maximum amount of entries per tick, or {@link #UNLIMITED_BUDGET}
+     */
+    public void populationBudget(int budget) {
+        if (budget < 1) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+
+        this.populationBudget.budget(budget);
+    }
+
+    /**
+     * Returns the amount of entries sent per tick by all tab lists which didn't send every entry once yet.
+     *
+     * @return the budget, or {@link #UNLIMITED_BUDGET}
+     * @see #populationBudget(int)
+     */
+    public int populationBudget() {
+        return this.populationBudget.budget();
+    }
+
+    /**
+     * Sets the handler receiving the {@link MammothTickReport report} of every tick.
+     *
+     * @param handler the handler, or {@code null} to disable reporting
+     */
+    public void onTick(@Nullable Consumer<MammothTickReport> handler) {
+        this.reportHandler = handler;
+    }
+
+    /**
+     * Sets the handler receiving exceptions thrown while updating or destroying a tab list.
+     *
+     * <p>Exceptions thrown while rendering a {@link MammothSharedTemplate shared template}, or by the
+     * {@link #onTick(Consumer) report handler}, are passed without a player.</p>
+     *
+     * @param handler the handler, or {@code null} to ignore the exceptions
+     */
+    public void onError(@Nullable BiConsumer<UUID, RuntimeException> handler) {
+        this.errorHandler = handler;
+    }
+
+    /**
+     * Updates every registered {@link MammothTabList tab list}, and waits for all shards to finish.
+     *
+     * @return the {@link MammothTickReport report} of this tick
+     * @throws IllegalStateException if the manager is closed
+     */
+    @NotNull
+    public MammothTickReport tick() {
+        synchronized (this.tickLock) {
+            ensureOpen();
+
+            long start = System.nanoTime();
+            int failures = regroupViewers() + renderSharedTemplates();
+            long sharedNanos = System.nanoTime() - start;
+            this.populationBudget.reset();
+            int count = this.shards.length;
+            long[] shardNanos = new long[count];
+            int[] shardSizes = new int[count];
+            AtomicInteger shardFailures = new AtomicInteger(failures);
+            AtomicInteger backpressured = new AtomicInteger();
+            CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+
+            for (int i = 0; i < count; i++) {
+                int index = i;
+
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    long shardStart = System.nanoTime();
+                    shardSizes[index] = this.shards[index].tick(shardFailures, backpressured);
+                    shardNanos[index] = System.nanoTime() - shardStart;
+                }, this.workers);
+            }
+
+            CompletableFuture.allOf(futures).join();
+
+            MammothTickReport report = new MammothTickReport(System.nanoTime() - start, sharedNanos, this.sharedTemplates.size(), shardNanos, shardSizes, shardFailures.get(), backpressured.get());
+            Consumer<MammothTickReport> handler = this.reportHandler;
+
+            if (handler != null) {
+                try {
+                    handler.accept(report);
+                } catch (RuntimeException e) {
+                    handleError(null, e);
+                }
+            }
+
+            return report;
+        }
+    }
+
+    /**
+     * Starts ticking the manager at the given rate on a dedicated thread.
+     *
+     * @param tickRate the tick rate
+     * @throws IllegalStateException if the manager is already started or closed
+     */
+    public synchronized void start(@NotNull Duration tickRate) {
+        ensureOpen();
+
+        if (this.ticker != null) {
+            throw new IllegalStateException("the manager is already started");
+        }
+
+        long nanos = tickRate.toNanos();
+
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threadFactory("mammoth-ticker-"));
+        this.ticker.scheduleAtFixedRate(() -> {
+            // An exception escaping the task would cancel every following tick
+            try {
+                this.tick();
+            } catch (RuntimeException e) {
+                // Ticks racing with the shutdown of the ticker fail because the manager is closed
+                if (!this.closed) {
+                    handleError(null, e);
+                }
+            }
+        }, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops ticking the manager, and destroys every registered {@link MammothTabList tab list}.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+
+        if (this.ticker != null) {
+            this.ticker.shutdown();
+
+            try {
+                this.ticker.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (this.tickLock) {
+            for (Shard shard : this.shards) {
+                synchronized (shard.lock) {
+                    shard.tabLists.forEach((uuid, tabList) -> shard.destroyed.add(tabList));
+                    shard.tabLists.clear();
+                    shard.destroyPending(new AtomicInteger());
+                }
+            }
+        }
+
+        if (this.ownsWorkers) {
+            this.workers.shutdown();
+        }
+    }
+
+    private int regroupViewers() {
+        int failures = 0;
+
+        for (MammothViewerGroups<?> groups : this.viewerGroups) {
+            failures += groups.regroup(this::handleError);
+        }
+
+        return failures;
+    }
+
+    private int renderSharedTemplates() {
+        if (this.sharedTemplates.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        CompletableFuture<?>[] futures = this.sharedTemplates.stream()
+            .map(shared -> CompletableFuture.runAsync(shared::render, this.workers).exceptionally(throwable -> {
+                failures.incrementAndGet();
+                handleError(null, unwrap(throwable));
+                return null;
+            }))
+            .toArray(CompletableFuture<?>[]::new);
+
+        CompletableFuture.allOf(futures).join();
+        return failures.get();
+    }
+
+    @NotNull
+    private static RuntimeException unwrap(@NotNull Throwable throwable) {
+        // Errors thrown by the render stay wrapped, as the error handler only receives runtime exceptions
+        if (throwable instanceof CompletionException && throwable.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+
+        return throwable instanceof RuntimeException exception ? exception : new CompletionException(throwable);
+    }
+
+    @NotNull
+    private Shard shard(@NotNull UUID uuid) {
+        return this.shards[Math.floorMod(uuid.hashCode(), this.shards.length)];
+    }
+
+    private void ensureOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("the manager is closed");
+        }
+    }
+
+    private void handleError(@Nullable UUID uuid, @NotNull RuntimeException exception) {
+        BiConsumer<UUID, RuntimeException> handler = this.errorHandler;
+
+        if (handler != null) {
+            handler.accept(uuid, exception);
+        }
+    }
+
+    @NotNull
+    private static ThreadFactory threadFactory(@NotNull String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class Shard {
+        private final Map<UUID, MammothTabList> tabLists = new ConcurrentHashMap<>();
+        private final Queue<MammothTabList> destroyed = new ConcurrentLinkedQueue<>();
+        private final Object lock = new Object();
+
+        int tick(@NotNull AtomicInteger failures, @NotNull AtomicInteger backpressured) {
+            synchronized (this.lock) {
+                return this.update(failures, backpressured);
+            }
+        }
+
+        private int update(@NotNull AtomicInteger failures, @NotNull AtomicInteger backpressured) {
+            destroyPending(failures);
+
+            int updated = 0;
+
+            for (MammothTabList tabList : this.tabLists.values()) {
+                long backpressuredUpdates = tabList.backpressuredUpdates();
+
+                try {
+                    tabList.update();
+
+                    if (tabList.backpressuredUpdates() != backpressuredUpdates) {
+                        backpressured.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    handleError(tabList.uuid, e);
+                }
+
+                updated++;
+            }
+
+            return updated;
+        }
+
+        void destroyPending(@NotNull AtomicInteger failures) {
+            MammothTabList tabList;
+
+            while ((tabList = this.destroyed.poll()) != null) {
+                destroy(tabList, failures);
+            }
+        }
+
+        void destroy(@NotNull MammothTabList tabList, @NotNull AtomicInteger failures) {
+            try {
+                tabList.destroy();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                handleError(tabList.uuid, e);
+            }
+        }
+    }
+}
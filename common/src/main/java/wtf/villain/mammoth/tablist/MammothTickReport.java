@@ -0,0 +1,149 @@
+package wtf.villain.mammoth.tablist;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Timing data of a single {@link MammothTabListManager#tick() tick}.
+ *
+ * <p>Every shard of the {@link MammothTabListManager manager} reports the time it took to update its
+ * {@link MammothTabList tab lists}, so the scaling of the worker pool can be observed.</p>
+ *
+ * @see MammothTabListManager
+ */
+public final class MammothTickReport {
+    private final long tickNanos;
+    private final long sharedNanos;
+    private final int sharedTemplates;
+    private final long[] shardNanos;
+    private final int[] shardSizes;
+    private final int failures;
+    private final int backpressured;
+
+    MammothTickReport(long tickNanos, long sharedNanos, int sharedTemplates, long @NotNull [] shardNanos, int @NotNull [] shardSizes, int failures, int backpressured) {
+        this.tickNanos = tickNanos;
+        this.sharedNanos = sharedNanos;
+        this.sharedTemplates = sharedTemplates;
+        this.shardNanos = shardNanos;
+        this.shardSizes = shardSizes;
+        this.failures = failures;
+        this.backpressured = backpressured;
+    }
+
+    /**
+     * Returns the wall-clock time of the tick, including the dispatching of the shards.
+     *
+     * @return the time in nanoseconds
+     */
+    public long tickNanos() {
+        return this.tickNanos;
+    }
+
+    /**
+     * Returns the time it took to render the {@link MammothSharedTemplate shared templates}.
+     *
+     * @return the time in nanoseconds
+     */
+    public long sharedNanos() {
+        return this.sharedNanos;
+    }
+
+    /**
+     * Returns the amount of rendered {@link MammothSharedTemplate shared templates}.
+     *
+     * @return the amount of shared templates
+     */
+    public int sharedTemplates() {
+        return this.sharedTemplates;
+    }
+
+    /**
+     * Returns the amount of shards.
+     *
+     * @return the amount of shards
+     */
+    public int shards() {
+        return this.shardNanos.length;
+    }
+
+    /**
+     * Returns the time it took the given shard to update its {@link MammothTabList tab lists}.
+     *
+     * @param shard the shard
+     * @return the time in nanoseconds
+     */
+    public long shardNanos(int shard) {
+        return this.shardNanos[shard];
+    }
+
+    /**
+     * Returns the amount of {@link MammothTabList tab lists} updated by the given shard.
+     *
+     * @param shard the shard
+     * @return the amount of tab lists
+     */
+    public int shardSize(int shard) {
+        return this.shardSizes[shard];
+    }
+
+    /**
+     * Returns the time spent in all shards combined.
+     *
+     * @return the time in nanoseconds
+     */
+    public long totalShardNanos() {
+        return Arrays.stream(this.shardNanos).sum();
+    }
+
+    /**
+     * Returns the time spent in the slowest shard.
+     *
+     * @return the time in nanoseconds
+     */
+    public long maxShardNanos() {
+        return Arrays.stream(this.shardNanos).max().orElse(0);
+    }
+
+    /**
+     * Returns the amount of {@link MammothTabList tab lists} updated during the tick.
+     *
+     * @return the amount of tab lists
+     */
+    public int tabLists() {
+        return Arrays.stream(this.shardSizes).sum();
+    }
+
+    /**
+     * Returns the amount of {@link MammothTabList tab lists} and {@link MammothSharedTemplate shared templates}
+     * which failed to update.
+     *
+     * @return the amount of failures
+     */
+    public int failures() {
+        return this.failures;
+    }
+
+    /**
+     * Returns the amount of {@link MammothTabList tab lists} which held back their update, because their
+     * player wasn't {@link wtf.villain.mammoth.platform.PlatformProvider#writable(java.util.UUID) writable}.
+     *
+     * @return the amount of backpressured tab lists
+     */
+    public int backpressured() {
+        return this.backpressured;
+    }
+
+    @Override
+    public String toString() {
+        return "MammothTickReport{" +
+            "tickNanos=" + this.tickNanos +
+            ", sharedNanos=" + this.sharedNanos +
+            ", sharedTemplates=" + this.sharedTemplates +
+            ", shardNanos=" + Arrays.toString(this.shardNanos) +
+            ", shardSizes=" + Arrays.toString(this.shardSizes) +
+            ", failures=" + this.failures +
+            ", backpressured=" + this.backpressured +
+            '}';
+    }
+}
@@ -0,0 +1,212 @@
+package wtf.villain.mammoth.tablist;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.tablist.impl.SharedMammothTabList;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Groups the viewers of a {@link MammothTemplate template} by a key, and renders the template once per group.
+ *
+ * <p>Templates which only depend on a few inputs of the viewer (their world, team, rank or locale) don't
+ * have to be rendered for every viewer. Every distinct key gets its own {@link MammothSharedTemplate shared
+ * template}, created by the template factory, and every viewer displays the template of its key. The cost
+ * of the template therefore scales with the amount of groups instead of the amount of viewers.</p>
+ *
+ * <p>The key of every viewer is evaluated again at the start of every {@link MammothTabListManager#tick() tick}.
+ * Viewers whose key changed are moved to the template of their new key, and templates without viewers
+ * stop being rendered.</p>
+ *
+ * @param <K> the type of the keys
+ * @see MammothTabListManager#group(Function, Function)
+ */
+public final class MammothViewerGroups<K> {
+    private final MammothTabListManager manager;
+    private final Function<UUID, ? extends K> keyFunction;
+    private final Function<? super K, ? extends MammothTemplate> templateFactory;
+    private final Map<K, Group> groups;
+    private final Map<UUID, Viewer<K>> viewers;
+
+    MammothViewerGroups(@NotNull MammothTabListManager manager, @NotNull Function<UUID, ? extends K> keyFunction, @NotNull Function<? super K, ? extends MammothTemplate> templateFactory) {
+        this.manager = manager;
+        this.keyFunction = keyFunction;
+        this.templateFactory = templateFactory;
+        this.groups = new ConcurrentHashMap<>();
+        this.viewers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers a {@link MammothTabList tab list} for the given player, displaying the template of its key.
+     *
+     * <p>If the player already had a tab list, the previous one gets destroyed.</p>
+     *
+     * @param uuid the player
+     * @return the registered {@link MammothTabList tab list}
+     */
+    @NotNull
+    public synchronized MammothTabList register(@NotNull UUID uuid) {
+        K key = this.keyFunction.apply(uuid);
+        Group group = this.acquire(key);
+        MammothTabList tabList = this.manager.register(uuid, group.shared);
+        Viewer<K> previous = this.viewers.put(uuid, new Viewer<>(key, (SharedMammothTabList) tabList));
+
+        if (previous != null) {
+            this.release(previous.key);
+        }
+
+        return tabList;
+    }
+
+    /**
+     * Unregisters the {@link MammothTabList tab list} of the given player.
+     *
+     * @param uuid the player
+     * @return {@code true} if the player was a viewer of these groups, {@code false} otherwise
+     * @see MammothTabListManager#unregister(UUID)
+     */
+    public synchronized boolean unregister(@NotNull UUID uuid) {
+        Viewer<K> viewer = this.viewers.remove(uuid);
+
+        if (viewer == null) {
+            return false;
+        }
+
+        this.release(viewer.key);
+
+        // The player might have been registered with another tab list in the meantime
+        if (this.manager.tabList(uuid) == viewer.tabList) {
+            this.manager.unregister(uuid);
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the key of the group displayed to the given player.
+     *
+     * @param uuid the player
+     * @return the key, or {@code null} if the player isn't a viewer of these groups
+     */
+    @Nullable
+    public K key(@NotNull UUID uuid) {
+        Viewer<K> viewer = this.viewers.get(uuid);
+        return viewer != null ? viewer.key : null;
+    }
+
+    /**
+     * Returns the {@link MammothSharedTemplate shared template} of the given key.
+     *
+     * @param key the key
+     * @return the shared template, or {@code null} if no viewer has the given key
+     */
+    @Nullable
+    public MammothSharedTemplate shared(@NotNull K key) {
+        Group group = this.groups.get(key);
+        return group != null ? group.shared : null;
+    }
+
+    /**
+     * Returns the amount of groups, which is the amount of rendered templates.
+     *
+     * @return the amount of groups
+     */
+    public int groups() {
+        return this.groups.size();
+    }
+
+    /**
+     * Returns the amount of viewers.
+     *
+     * @return the amount of viewers
+     */
+    public int viewers() {
+        return this.viewers.size();
+    }
+
+    /**
+     * Evaluates the key of every viewer again, and moves the viewers whose key changed.
+     *
+     * @param errorHandler the handler receiving exceptions thrown by the key function
+     * @return the amount of failed key evaluations
+     */
+    synchronized int regroup(@NotNull BiConsumer<UUID, RuntimeException> errorHandler) {
+        int failures = 0;
+        Iterator<Map.Entry<UUID, Viewer<K>>> iterator = this.viewers.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Viewer<K>> entry = iterator.next();
+            UUID uuid = entry.getKey();
+            Viewer<K> viewer = entry.getValue();
+
+            // Viewers unregistered from the manager directly leave their group as well
+            if (this.manager.tabList(uuid) != viewer.tabList) {
+                iterator.remove();
+                this.release(viewer.key);
+                continue;
+            }
+
+            K key;
+
+            try {
+                key = this.keyFunction.apply(uuid);
+            } catch (RuntimeException e) {
+                // The viewer stays in its group until its key can be evaluated again
+                failures++;
+                errorHandler.accept(uuid, e);
+                continue;
+            }
+
+            if (!Objects.equals(key, viewer.key)) {
+                // The new group is acquired first, so a group isn't unshared and shared again
+                viewer.tabList.display(this.acquire(key).shared);
+                this.release(viewer.key);
+                viewer.key = key;
+            }
+        }
+
+        return failures;
+    }
+
+    @NotNull
+    private Group acquire(K key) {
+        Group group = this.groups.computeIfAbsent(key, k -> new Group(this.manager.share(this.templateFactory.apply(k))));
+        group.viewers++;
+        return group;
+    }
+
+    private void release(K key) {
+        Group group = this.groups.get(key);
+
+        if (group != null && --group.viewers == 0) {
+            this.groups.remove(key);
+            this.manager.unshare(group.shared);
+        }
+    }
+
+    private static final class Group {
+        private final MammothSharedTemplate shared;
+        private int viewers;
+
+        private Group(@NotNull MammothSharedTemplate shared) {
+            this.shared = shared;
+        }
+    }
+
+    private static final class Viewer<K> {
+        private final SharedMammothTabList tabList;
+        private K key;
+
+        private Viewer(K key, @NotNull SharedMammothTabList tabList) {
+            this.key = key;
+            this.tabList = tabList;
+        }
+    }
+}
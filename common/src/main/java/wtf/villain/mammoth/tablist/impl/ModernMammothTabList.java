@@ -2,11 +2,13 @@ package wtf.villain.mammoth.tablist.impl;
 
 
 import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.platform.MammothChangeSet;
 import wtf.villain.mammoth.platform.PlatformProvider;
 import wtf.villain.mammoth.platform.UpdateAction;
 import wtf.villain.mammoth.tablist.MammothTabList;
 import wtf.villain.mammoth.template.MammothEntry;
 import wtf.villain.mammoth.template.MammothHeaderAndFooter;
+import wtf.villain.mammoth.template.MammothSlotSet;
 import wtf.villain.mammoth.template.MammothTemplate;
 
 import java.util.ArrayList;
@@ -16,12 +18,43 @@ import java.util.UUID;
 /**
  * A tab list provider for versions 1.8 - latest.
  *
+ * <p>Tab lists can be limited to a budget of entries sent per update. Changes exceeding the budget are
+ * deferred to the next updates, and are sent by priority: added entries and skin changes first, then
+ * text changes, then ping changes, and the header and footer last. Entries are scanned round-robin, and the
+ * header and footer are deferred for one cycle through the entries at most. Deferred changes are coalesced with
+ * newer ones, and the entries are baked when they get sent, so the final state is never lost.</p>
+ *
+ * <p>While the player isn't {@link PlatformProvider#writable(UUID) writable}, every change is deferred the same way,
+ * and the latest state of the changed entries is sent at once as soon as the player is writable again.</p>
+ *
+ * <p>Until every entry was sent once, the sent entries are also limited by the
+ * {@link wtf.villain.mammoth.tablist.MammothTabListManager#populationBudget(int) population budget} of the manager.</p>
+ *
  * @see MammothTabList
  */
 public final class ModernMammothTabList extends MammothTabList {
-    private final List<Object> skinChanged;
-    private final List<Object> textChanged;
-    private final List<Object> pingChanged;
+    /**
+     * The budget of tab lists sending every change right away.
+     */
+    public static final int UNLIMITED_BUDGET = Integer.MAX_VALUE;
+
+    private static final int SKIN_CHANGED = 1;
+    private static final int TEXT_CHANGED = 1 << 1;
+    private static final int PING_CHANGED = 1 << 2;
+
+    private final MammothChangeSet changes;
+    private final MammothSlotSet dirtySlots;
+    private final int budget;
+
+    // The deferred changes, only allocated for tab lists with a budget, or while the population is limited or the player isn't writable
+    private byte[] pendingChanges;
+    private MammothSlotSet pendingSlots;
+    private boolean writable;
+    private boolean populated;
+    private boolean pendingHeaderFooter;
+    private int headerFooterDeferrals;
+    private int remaining;
+    private int cursor;
 
     /**
      * Creates a provider instance.
@@ -31,57 +64,98 @@ public final class ModernMammothTabList extends MammothTabList {
      * @param template         the template
      */
     public ModernMammothTabList(@NotNull UUID uuid, @NotNull PlatformProvider platformProvider, @NotNull MammothTemplate template) {
+        this(uuid, platformProvider, template, UNLIMITED_BUDGET);
+    }
+
+    /**
+     * Creates a provider instance sending at most {@code budget} entries per update.
+     *
+     * <p>The header and footer count as a single entry.</p>
+     *
+     * @param uuid             the player
+     * @param platformProvider the platform provider
+     * @param template         the template
+     * @param budget           the maximum amount of entries sent per update, or {@link #UNLIMITED_BUDGET}
+     */
+    public ModernMammothTabList(@NotNull UUID uuid, @NotNull PlatformProvider platformProvider, @NotNull MammothTemplate template, int budget) {
         super(uuid, platformProvider, template);
-        this.textChanged = new ArrayList<>();
-        this.skinChanged = new ArrayList<>();
-        this.pingChanged = new ArrayList<>();
+
+        if (budget < 1) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+
+        this.changes = new MammothChangeSet();
+        this.dirtySlots = new MammothSlotSet();
+        this.budget = budget;
+        this.pendingChanges = budget != UNLIMITED_BUDGET ? new byte[MammothTemplate.TEMPLATE_MAX_SIZE] : null;
+        this.pendingSlots = budget != UNLIMITED_BUDGET ? new MammothSlotSet() : null;
     }
 
     @Override
     public void update() {
+        this.writable = writable();
+
+        if (this.pendingChanges == null && (!this.writable || !this.populated && populationLimited())) {
+            this.pendingChanges = new byte[MammothTemplate.TEMPLATE_MAX_SIZE];
+            this.pendingSlots = new MammothSlotSet();
+        }
+
         updateTabList();
         updateHeaderFooter();
+        this.platformProvider.flush(this.uuid);
+
+        if (!this.populated) {
+            releasePopulation(this.remaining);
+            this.populated = this.pendingChanges == null || this.pendingSlots.isEmpty() && !this.pendingHeaderFooter;
+        }
+
+        if (this.budget == UNLIMITED_BUDGET && this.pendingChanges != null && this.writable && this.populated && this.pending() == 0) {
+            // Everything deferred was sent, so the changes are sent directly again
+            this.pendingChanges = null;
+            this.pendingSlots = null;
+            this.headerFooterDeferrals = 0;
+            this.cursor = 0;
+        }
     }
 
     @Override
     protected void destroy() {
         List<Object> baked = new ArrayList<>();
+        MammothEntry[] entries = this.template.entries();
+        MammothSlotSet usedSlots = this.template.usedSlots();
 
-        for (MammothEntry entry : this.template.entries()) {
-            baked.add(this.platformProvider.bakeEntry(entry, this.gameFeatures));
+        // Unused entries were never added
+        for (int i = usedSlots.next(0); i >= 0; i = usedSlots.next(i + 1)) {
+            baked.add(this.platformProvider.bakeEntry(entries[i], this.gameFeatures));
         }
 
-        clearBakedData();
+        this.changes.clear();
         this.platformProvider.send(this.uuid, this.gameFeatures, UpdateAction.REMOVE, baked);
+        this.platformProvider.flush(this.uuid);
     }
 
     private void updateTabList() {
         this.template.update();
+        this.template.collectDirtySlots(this.dirtySlots);
 
-        for (int i = 0; i < MammothTemplate.TEMPLATE_MAX_SIZE; i++) {
+        // Only the entries which might have changed are visited
+        for (int i = this.dirtySlots.next(0); i >= 0; i = this.dirtySlots.next(i + 1)) {
             MammothEntry entry = this.template.entries()[i];
             entry.update();
 
             // If the entry has nothing in it, fall back to the default entry provider
             if (!entry.dirty() && entry.entryProvider() == null) {
-                entry.setEntryProvider(this.template.defaultProvider());
+                this.template.fallback(i);
                 entry.update();
             }
 
             // We check if anything changed
             if (entry.anyChanged()) {
-                Object baked = this.platformProvider.bakeEntry(entry, this.gameFeatures);
-
-                if (entry.skinChanged()) {
-                    this.skinChanged.add(baked);
+                if (this.pendingChanges == null) {
+                    Object baked = this.platformProvider.bakeEntry(entry, this.gameFeatures);
+                    this.changes.add(baked, entry.skinChanged(), entry.textChanged(), entry.pingChanged());
                 } else {
-                    if (entry.textChanged()) {
-                        this.textChanged.add(baked);
-                    }
-
-                    if (entry.pingChanged()) {
-                        this.pingChanged.add(baked);
-                    }
+                    this.defer(i, entry);
                 }
             }
 
@@ -90,10 +164,25 @@ public final class ModernMammothTabList extends MammothTabList {
             }
         }
 
-        this.platformProvider.send(this.uuid, this.gameFeatures, UpdateAction.ADD, this.skinChanged);
-        this.platformProvider.send(this.uuid, this.gameFeatures, UpdateAction.UPDATE_NAME, this.textChanged);
-        this.platformProvider.send(this.uuid, this.gameFeatures, UpdateAction.UPDATE_LATENCY, this.pingChanged);
-        clearBakedData();
+        if (this.pendingChanges != null) {
+            // Every priority gets what the higher ones left over, nothing is sent while the player isn't writable
+            this.remaining = this.writable ? this.budget : 0;
+
+            if (!this.populated && this.remaining > 0) {
+                // Joining players share the population budget, the header and footer might need one more entry
+                this.remaining = acquirePopulation(Math.min(this.remaining, this.pendingSlots.size() + 1));
+            }
+
+            this.schedule(SKIN_CHANGED);
+            this.schedule(TEXT_CHANGED);
+            this.schedule(PING_CHANGED);
+        }
+
+        // Nothing gets sent if nothing changed
+        if (!this.changes.isEmpty()) {
+            this.platformProvider.send(this.uuid, this.gameFeatures, this.changes);
+            this.changes.clear();
+        }
     }
 
     private void updateHeaderFooter() {
@@ -101,8 +190,24 @@ public final class ModernMammothTabList extends MammothTabList {
         entry.update();
 
         // We check if anything changed
-        if (entry.anyChanged()) {
-            this.platformProvider.sendHeaderAndFooter(this.uuid, entry.newHeader(), entry.newFooter());
+        if (this.pendingChanges == null) {
+            if (entry.anyChanged()) {
+                this.platformProvider.sendHeaderAndFooter(this.uuid, entry.currentHeader(), entry.currentFooter());
+            }
+        } else {
+            this.pendingHeaderFooter |= entry.anyChanged();
+
+            if (this.pendingHeaderFooter) {
+                // The header and footer come last, but are sent at the latest once every entry had its turn
+                if (this.writable && (this.remaining > 0 || this.populated && this.headerFooterDeferrals >= MammothTemplate.TEMPLATE_MAX_SIZE / Math.min(this.budget, MammothTemplate.TEMPLATE_MAX_SIZE))) {
+                    this.platformProvider.sendHeaderAndFooter(this.uuid, entry.currentHeader(), entry.currentFooter());
+                    this.pendingHeaderFooter = false;
+                    this.headerFooterDeferrals = 0;
+                    this.remaining--;
+                } else {
+                    this.headerFooterDeferrals++;
+                }
+            }
         }
 
         if (this.template.updateEntryStates()) {
@@ -110,9 +215,84 @@ public final class ModernMammothTabList extends MammothTabList {
         }
     }
 
-    private void clearBakedData() {
-        this.skinChanged.clear();
-        this.textChanged.clear();
-        this.pingChanged.clear();
+    /**
+     * Returns the maximum amount of entries sent per update.
+     *
+     * @return the budget, or {@link #UNLIMITED_BUDGET}
+     */
+    public int budget() {
+        return this.budget;
+    }
+
+    /**
+     * Returns the amount of deferred changes, the header and footer counting as a single change.
+     *
+     * @return the amount of deferred changes
+     */
+    public int pending() {
+        return this.pendingSlots != null ? this.pendingSlots.size() + (this.pendingHeaderFooter ? 1 : 0) : 0;
+    }
+
+    private void defer(int pos, @NotNull MammothEntry entry) {
+        int changes = this.pendingChanges[pos];
+
+        if (entry.skinChanged()) {
+            changes |= SKIN_CHANGED;
+        }
+
+        if (entry.textChanged()) {
+            changes |= TEXT_CHANGED;
+        }
+
+        if (entry.pingChanged()) {
+            changes |= PING_CHANGED;
+        }
+
+        this.pendingChanges[pos] = (byte) changes;
+        this.pendingSlots.add(pos);
+    }
+
+    private void schedule(int priority) {
+        // Scanning from where the previous update stopped, so entries changing on every update can't starve the others
+        int start = this.cursor;
+        int last = this.scan(priority, start, MammothTemplate.TEMPLATE_MAX_SIZE);
+
+        if (this.remaining > 0) {
+            // Entries sent after wrapping around were sent last, even though their position is lower
+            int wrapped = this.scan(priority, 0, start);
+
+            if (wrapped >= 0) {
+                last = wrapped;
+            }
+        }
+
+        if (last >= 0) {
+            this.cursor = (last + 1) % MammothTemplate.TEMPLATE_MAX_SIZE;
+        }
+    }
+
+    private int scan(int priority, int from, int to) {
+        MammothEntry[] entries = this.template.entries();
+        int last = -1;
+
+        for (int i = this.pendingSlots.next(from); i >= 0 && i < to && this.remaining > 0; i = this.pendingSlots.next(i + 1)) {
+            int changes = this.pendingChanges[i];
+
+            // Entries are scheduled by their most important change, which was handled by the previous passes
+            if ((changes & priority) == 0) {
+                continue;
+            }
+
+            // The entry is baked now, so it's sent with its latest state
+            Object baked = this.platformProvider.bakeEntry(entries[i], this.gameFeatures);
+            this.changes.add(baked, (changes & SKIN_CHANGED) != 0, (changes & TEXT_CHANGED) != 0, (changes & PING_CHANGED) != 0);
+
+            this.pendingChanges[i] = 0;
+            this.pendingSlots.remove(i);
+            this.remaining--;
+            last = i;
+        }
+
+        return last;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,355 @@
+package wtf.villain.mammoth.tablist.impl;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.platform.MammothChangeSet;
+import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.platform.UpdateAction;
+import wtf.villain.mammoth.tablist.MammothSharedTemplate;
+import wtf.villain.mammoth.tablist.MammothTabList;
+import wtf.villain.mammoth.template.MammothEntry;
+import wtf.villain.mammoth.template.MammothEntryProvider;
+import wtf.villain.mammoth.template.MammothHeaderAndFooter;
+import wtf.villain.mammoth.template.MammothSlotSet;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A tab list displaying a {@link MammothSharedTemplate shared template}, with per-player overrides.
+ *
+ * <p>The entries of the shared template are baked once per render, this tab list only forwards
+ * them to the player. Entries with content in the override {@link MammothTemplate template} (set
+ * values or a non-default {@link MammothEntryProvider provider}) are displayed instead of the
+ * shared ones, and are updated like in a {@link ModernMammothTabList}. The same applies to the
+ * header and footer.</p>
+ *
+ * <p>While the player isn't {@link PlatformProvider#writable(UUID) writable}, nothing is sent, but the changes of
+ * the skipped renders are collected. Once the player is writable again, the latest state of every changed entry is
+ * sent at once. The tab list only gets fully synchronized with the latest render if a render was missed while the
+ * player wasn't writable, as the skipped changes can't be rebuilt then.</p>
+ *
+ * <p>The first synchronization waits until the {@link wtf.villain.mammoth.tablist.MammothTabListManager#populationBudget(int)
+ * population budget} of the manager has any entries left.</p>
+ *
+ * @see MammothSharedTemplate
+ * @see MammothTabList
+ */
+public final class SharedMammothTabList extends MammothTabList {
+    private final MammothSlotSet overridden;
+    private final MammothSlotSet dirtySlots;
+    private final MammothSlotSet visitedSlots;
+    private final MammothSlotSet staleSlots;
+    private final MammothSlotSet skippedSlots;
+    private final byte[] skippedChanges;
+    private final MammothChangeSet changes;
+
+    private MammothSharedTemplate shared;
+    private long revision;
+    private boolean synced;
+    private boolean resync;
+    private Object[] staleFrame;
+    private Component header;
+    private Component footer;
+
+    /**
+     * Creates a provider instance.
+     *
+     * @param uuid             the player
+     * @param platformProvider the platform provider
+     * @param shared           the shared template
+     * @param template         the template holding the overrides of the player
+     */
+    public SharedMammothTabList(@NotNull UUID uuid, @NotNull PlatformProvider platformProvider, @NotNull MammothSharedTemplate shared, @NotNull MammothTemplate template) {
+        super(uuid, platformProvider, template);
+        this.shared = shared;
+        this.overridden = new MammothSlotSet();
+        this.dirtySlots = new MammothSlotSet();
+        this.visitedSlots = new MammothSlotSet();
+        this.staleSlots = new MammothSlotSet();
+        this.skippedSlots = new MammothSlotSet();
+        this.skippedChanges = new byte[MammothTemplate.TEMPLATE_MAX_SIZE];
+        this.changes = new MammothChangeSet();
+        this.shared.subscribe(this.gameFeatures);
+    }
+
+    @Override
+    public void update() {
+        if (!writable()) {
+            // Only the entries changed by the skipped renders are sent once the player is writable
+            this.skip();
+            return;
+        }
+
+        // The revision must be read before the frame, as it publishes the rendered data
+        long revision = this.shared.revision();
+        Object[] frame = this.shared.frame(this.gameFeatures);
+
+        if (frame == null) {
+            // The shared template didn't render our features yet
+            return;
+        }
+
+        if (!this.synced && acquirePopulation(Math.max(this.shared.template().usedSlots().size(), 1)) == 0) {
+            // Joining players wait for the population budget, and receive the whole snapshot at once
+            return;
+        }
+
+        updateTabList(frame, revision);
+        updateHeaderFooter();
+        this.platformProvider.flush(this.uuid);
+
+        this.revision = revision;
+        this.synced = true;
+        this.resync = false;
+    }
+
+    @Override
+    protected void destroy() {
+        Object[] frame = this.shared.frame(this.gameFeatures);
+
+        if (!this.synced) {
+            return;
+        }
+
+        MammothSlotSet usedSlots = this.shared.template().usedSlots();
+        List<Object> baked = new ArrayList<>();
+        MammothEntry[] entries = this.template.entries();
+
+        // Entries are removed by their uuid, which doesn't depend on the template
+        for (int i = usedSlots.next(0); i >= 0; i = usedSlots.next(i + 1)) {
+            baked.add(this.overridden.contains(i) || frame == null ? this.platformProvider.bakeEntry(entries[i], this.gameFeatures) : frame[i]);
+        }
+
+        // Entries of the previous template which weren't removed yet
+        removeStaleEntries(baked);
+
+        this.changes.clear();
+        this.platformProvider.send(this.uuid, this.gameFeatures, UpdateAction.REMOVE, baked);
+        this.platformProvider.flush(this.uuid);
+    }
+
+    /**
+     * Switches the {@link MammothSharedTemplate shared template} displayed by this tab list.
+     *
+     * <p>Every shared entry is sent again on the next update, replacing the entries of the previous
+     * template without removing them first. Only the entries which aren't {@link MammothTemplate#layout() used}
+     * by the new template are removed. This method must not be called concurrently with the update of this
+     * tab list.</p>
+     *
+     * @param shared the shared template
+     */
+    public void display(@NotNull MammothSharedTemplate shared) {
+        if (this.shared == shared) {
+            return;
+        }
+
+        if (this.synced && this.staleFrame == null) {
+            // The entries are baked by the previous template, which keeps its frames after being unshared
+            this.staleSlots.set(this.shared.template().usedSlots());
+            this.staleFrame = this.shared.frame(this.gameFeatures);
+        }
+
+        this.shared = shared;
+        this.shared.subscribe(this.gameFeatures);
+        this.resync = true;
+    }
+
+    /**
+     * Returns the {@link MammothSharedTemplate shared template} displayed by this tab list.
+     *
+     * @return the shared template
+     */
+    @NotNull
+    public MammothSharedTemplate shared() {
+        return this.shared;
+    }
+
+    private void updateTabList(@NotNull Object[] frame, long revision) {
+        this.template.update();
+        this.template.collectDirtySlots(this.dirtySlots);
+
+        // If we missed a render, switched templates or were backpressured, every shared entry has to be sent again
+        boolean fullSync = !this.synced || this.resync || this.revision + 1 != revision;
+        boolean rendered = this.revision != revision;
+        boolean updateEntryStates = this.template.updateEntryStates();
+        MammothEntry[] entries = this.template.entries();
+
+        MammothSlotSet usedSlots = this.shared.template().usedSlots();
+
+        if (fullSync) {
+            // The snapshot sends the latest state of the skipped entries as well
+            this.clearSkipped();
+        }
+
+        if (fullSync && this.staleFrame != null) {
+            List<Object> baked = new ArrayList<>();
+            removeStaleEntries(baked);
+
+            if (!baked.isEmpty()) {
+                this.platformProvider.send(this.uuid, this.gameFeatures, UpdateAction.REMOVE, baked);
+            }
+        }
+
+        if (fullSync) {
+            // Every shared entry is sent by the snapshot, which is baked once for every player synchronizing during this render
+            Object snapshot = this.shared.snapshot(this.gameFeatures);
+
+            if (snapshot != null) {
+                this.platformProvider.sendSnapshot(this.uuid, this.gameFeatures, snapshot);
+            }
+        }
+
+        // Only the overrides which might have changed, the overridden entries and the changed shared entries are visited
+        this.visitedSlots.set(this.dirtySlots);
+        this.visitedSlots.addAll(this.overridden);
+
+        if (fullSync) {
+            this.visitedSlots.set(usedSlots);
+        } else {
+            if (rendered) {
+                this.visitedSlots.addAll(this.shared.changedSlots());
+            }
+
+            this.visitedSlots.addAll(this.skippedSlots);
+        }
+
+        // The layout of the shared template decides which entries are displayed, overrides included
+        this.visitedSlots.retainAll(usedSlots);
+
+        for (int i = this.visitedSlots.next(0); i >= 0; i = this.visitedSlots.next(i + 1)) {
+            MammothEntry entry = entries[i];
+            boolean dirty = this.dirtySlots.contains(i);
+            boolean wasOverridden = this.overridden.contains(i);
+
+            if (isOverridden(entry)) {
+                this.overridden.add(i);
+
+                if (dirty) {
+                    entry.update();
+                }
+
+                // Overrides replaced by the snapshot are added again
+                boolean added = !wasOverridden || fullSync;
+
+                if (dirty ? added || entry.anyChanged() : wasOverridden && fullSync) {
+                    Object baked = this.platformProvider.bakeEntry(entry, this.gameFeatures);
+                    this.changes.add(baked, added || entry.skinChanged(), entry.textChanged(), entry.pingChanged());
+                }
+            } else if (fullSync) {
+                // The snapshot already added the shared entry
+                this.overridden.remove(i);
+            } else if (wasOverridden) {
+                this.overridden.remove(i);
+                this.changes.add(UpdateAction.ADD, frame[i]);
+            } else {
+                // The changes of the skipped renders are merged, and the frame holds the latest state of the entry
+                int changes = (rendered ? this.shared.changes(i) : 0) | this.skippedChanges[i];
+
+                if (changes != 0) {
+                    this.changes.add(
+                        frame[i],
+                        (changes & MammothSharedTemplate.SKIN_CHANGED) != 0,
+                        (changes & MammothSharedTemplate.TEXT_CHANGED) != 0,
+                        (changes & MammothSharedTemplate.PING_CHANGED) != 0
+                    );
+                }
+            }
+
+            if (updateEntryStates && dirty) {
+                entry.resetState();
+            }
+        }
+
+        this.clearSkipped();
+
+        // Nothing gets sent if nothing changed
+        if (!this.changes.isEmpty()) {
+            this.platformProvider.send(this.uuid, this.gameFeatures, this.changes);
+            this.changes.clear();
+        }
+    }
+
+    private void skip() {
+        long revision = this.shared.revision();
+
+        if (!this.synced || this.resync || revision == this.revision) {
+            // Nothing was sent yet, or everything gets sent again anyway
+            return;
+        }
+
+        if (this.revision + 1 != revision) {
+            // A render was missed, so its changes can't be rebuilt
+            this.resync = true;
+            return;
+        }
+
+        MammothSlotSet changedSlots = this.shared.changedSlots();
+
+        for (int i = changedSlots.next(0); i >= 0; i = changedSlots.next(i + 1)) {
+            this.skippedChanges[i] |= (byte) this.shared.changes(i);
+        }
+
+        this.skippedSlots.addAll(changedSlots);
+        this.revision = revision;
+    }
+
+    private void clearSkipped() {
+        for (int i = this.skippedSlots.next(0); i >= 0; i = this.skippedSlots.next(i + 1)) {
+            this.skippedChanges[i] = 0;
+        }
+
+        this.skippedSlots.clear();
+    }
+
+    private void updateHeaderFooter() {
+        MammothHeaderAndFooter entry = this.template.headerAndFooter();
+        entry.update();
+
+        Component header = entry.currentHeader() != null ? entry.currentHeader() : this.shared.header();
+        Component footer = entry.currentFooter() != null ? entry.currentFooter() : this.shared.footer();
+
+        if (!Objects.equals(this.header, header) || !Objects.equals(this.footer, footer)) {
+            this.platformProvider.sendHeaderAndFooter(this.uuid, header, footer);
+            this.header = header;
+            this.footer = footer;
+        }
+
+        if (this.template.updateEntryStates()) {
+            entry.resetState();
+        }
+    }
+
+    private void removeStaleEntries(@NotNull List<Object> baked) {
+        if (this.staleFrame == null) {
+            return;
+        }
+
+        MammothSlotSet usedSlots = this.shared.template().usedSlots();
+        MammothEntry[] entries = this.template.entries();
+
+        for (int i = this.staleSlots.next(0); i >= 0; i = this.staleSlots.next(i + 1)) {
+            if (usedSlots.contains(i)) {
+                continue;
+            }
+
+            if (this.overridden.contains(i)) {
+                this.overridden.remove(i);
+                baked.add(this.platformProvider.bakeEntry(entries[i], this.gameFeatures));
+            } else {
+                baked.add(this.staleFrame[i]);
+            }
+        }
+
+        this.staleSlots.clear();
+        this.staleFrame = null;
+    }
+
+    private boolean isOverridden(@NotNull MammothEntry entry) {
+        MammothEntryProvider provider = entry.entryProvider();
+        return entry.dirty() || (provider != null && provider != this.template.defaultProvider());
+    }
+}
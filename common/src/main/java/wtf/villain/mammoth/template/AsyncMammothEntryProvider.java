@@ -0,0 +1,245 @@
+package wtf.villain.mammoth.template;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * An {@link MammothEntryProvider entry provider} whose content is loaded asynchronously.
+ *
+ * <p>The provider always displays the last loaded content (or the placeholder until the first load
+ * completes), so a slow lookup never stalls an update. The content is loaded again once {@code loadInterval}
+ * elapsed since the previous load started, unless a load is already in flight. Completed loads increase the
+ * {@link #revision() revision} of the provider, so the new content gets displayed on the next update.</p>
+ *
+ * <p>Loads which don't complete within the timeout are abandoned, and the last loaded content
+ * stays displayed, just like when a load fails. Failed loads are retried after {@link #RETRY_DELAY}, or after
+ * {@code loadInterval} if it's shorter, even if the content is only loaded once.</p>
+ *
+ * @see VersionedMammothEntryProvider
+ */
+public final class AsyncMammothEntryProvider implements VersionedMammothEntryProvider {
+    /**
+     * The executor running blocking lookups by default.
+     */
+    public static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    /**
+     * The maximum time after which a failed load is retried.
+     */
+    public static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private static final int DEFAULT_EXECUTOR_THREADS = 16;
+
+    private final Supplier<? extends CompletableFuture<? extends MammothEntryProvider>> loader;
+    private final long timeoutMillis;
+    private final long loadIntervalNanos;
+    private final long retryDelayNanos;
+    private final AtomicBoolean loading;
+
+    // Every template using the provider reads its revision, so loads are scheduled by time rather than by updates
+    private volatile long nextLoad;
+    private volatile boolean loaded;
+
+    private volatile Content content;
+    private volatile long revision;
+
+    /**
+     * Creates a new provider.
+     *
+     * @param loader          the loader, starting a new load of the content on every call
+     * @param placeholder     the content displayed until the first load completes
+     * @param timeout         the time after which a load gets abandoned
+     * @param loadInterval    the time between the start of two loads, or {@link Duration#ZERO} to only load the content once
+     */
+    public AsyncMammothEntryProvider(@NotNull Supplier<? extends CompletableFuture<? extends MammothEntryProvider>> loader, @NotNull MammothEntryProvider placeholder, @NotNull Duration timeout, @NotNull Duration loadInterval) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+
+        if (loadInterval.isNegative()) {
+            throw new IllegalArgumentException("loadInterval must not be negative");
+        }
+
+        this.loader = loader;
+        this.timeoutMillis = timeout.toMillis();
+        this.loadIntervalNanos = loadInterval.toNanos();
+        this.retryDelayNanos = loadInterval.isZero() ? RETRY_DELAY.toNanos() : Math.min(this.loadIntervalNanos, RETRY_DELAY.toNanos());
+        this.loading = new AtomicBoolean();
+        this.nextLoad = System.nanoTime();
+        this.content = new Content(placeholder);
+    }
+
+    /**
+     * Creates a new provider running a blocking lookup on the given executor.
+     *
+     * <p>Lookups which time out are cancelled, which interrupts them if they're already running.</p>
+     *
+     * @param lookup          the blocking lookup
+     * @param placeholder     the content displayed until the first lookup completes
+     * @param executor        the executor running the lookups
+     * @param timeout         the time after which a lookup gets abandoned
+     * @param loadInterval    the time between the start of two lookups, or {@link Duration#ZERO} to only look up the content once
+     * @return a new provider
+     */
+    @NotNull
+    public static AsyncMammothEntryProvider blocking(@NotNull Supplier<? extends MammothEntryProvider> lookup, @NotNull MammothEntryProvider placeholder, @NotNull Executor executor, @NotNull Duration timeout, @NotNull Duration loadInterval) {
+        return new AsyncMammothEntryProvider(() -> {
+            CompletableFuture<MammothEntryProvider> future = new CompletableFuture<>();
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                try {
+                    future.complete(lookup.get());
+                } catch (Throwable throwable) {
+                    future.completeExceptionally(throwable);
+                }
+            }, null);
+
+            // The future is only used by this lookup, so it's timed out itself and abandoned lookups don't keep occupying a thread
+            future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((provider, throwable) -> {
+                if (throwable != null) {
+                    task.cancel(true);
+                }
+            });
+
+            executor.execute(task);
+            return future;
+        }, placeholder, timeout, loadInterval);
+    }
+
+    /**
+     * Creates a new provider running a blocking lookup on the {@link #DEFAULT_EXECUTOR default executor}.
+     *
+     * <p>Lookups which time out are cancelled, which interrupts them if they're already running.</p>
+     *
+     * @param lookup          the blocking lookup
+     * @param placeholder     the content displayed until the first lookup completes
+     * @param timeout         the time after which a lookup gets abandoned
+     * @param loadInterval    the time between the start of two lookups, or {@link Duration#ZERO} to only look up the content once
+     * @return a new provider
+     */
+    @NotNull
+    public static AsyncMammothEntryProvider blocking(@NotNull Supplier<? extends MammothEntryProvider> lookup, @NotNull MammothEntryProvider placeholder, @NotNull Duration timeout, @NotNull Duration loadInterval) {
+        return blocking(lookup, placeholder, DEFAULT_EXECUTOR, timeout, loadInterval);
+    }
+
+    @Override
+    @NotNull
+    public Component text() {
+        return this.content.text;
+    }
+
+    @Override
+    @NotNull
+    public TextureProperty skin() {
+        return this.content.skin;
+    }
+
+    @Override
+    public int ping() {
+        return this.content.ping;
+    }
+
+    @Override
+    public long revision() {
+        // The revision is read on every update, which is when the next load starts
+        if (this.due()) {
+            this.load();
+        }
+
+        return this.revision;
+    }
+
+    /**
+     * Returns if a load is in flight.
+     *
+     * @return {@code true} if the content is being loaded, {@code false} otherwise
+     */
+    public boolean loading() {
+        return this.loading.get();
+    }
+
+    private void load() {
+        // Loads are never started while another one is in flight
+        if (!this.loading.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Another template might have completed a load since we checked
+        if (!this.due()) {
+            this.loading.set(false);
+            return;
+        }
+
+        this.nextLoad = System.nanoTime() + this.loadIntervalNanos;
+
+        CompletableFuture<? extends MammothEntryProvider> future;
+
+        try {
+            future = this.loader.get();
+        } catch (RuntimeException e) {
+            this.nextLoad = System.nanoTime() + this.retryDelayNanos;
+            this.loading.set(false);
+            return;
+        }
+
+        // The timeout is put on a copy, so it never completes a future the loader shares with others (e.g. a cache)
+        future.copy().orTimeout(this.timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((provider, throwable) -> {
+            // Only one load is in flight at a time, so the revision has a single writer
+            if (throwable == null && provider != null) {
+                this.content = new Content(provider);
+                this.loaded = true;
+                this.revision++;
+            } else {
+                // Failed and abandoned loads are retried, even if the content is only loaded once
+                this.nextLoad = Math.min(this.nextLoad, System.nanoTime() + this.retryDelayNanos);
+            }
+
+            this.loading.set(false);
+        });
+    }
+
+    private boolean due() {
+        return System.nanoTime() - this.nextLoad >= 0 && (!this.loaded || this.loadIntervalNanos > 0);
+    }
+
+    @NotNull
+    private static Executor createDefaultExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+
+        // Lookups beyond the thread limit are queued, and are cancelled by their timeout if they wait too long
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DEFAULT_EXECUTOR_THREADS, DEFAULT_EXECUTOR_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mammoth-lookup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * A snapshot of the content of a provider.
+     */
+    private static final class Content {
+        private final Component text;
+        private final TextureProperty skin;
+        private final int ping;
+
+        private Content(@NotNull MammothEntryProvider provider) {
+            this.text = provider.text();
+            this.skin = provider.skin();
+            this.ping = provider.ping();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package wtf.villain.mammoth.template;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.util.UUID;
+
+/**
+ * An {@link MammothEntryProvider entry provider} displaying the live latency of a player.
+ *
+ * <p>The latency is read from the {@link PlatformProvider platform provider} on every update. Use it in a
+ * template comparing pings by {@link MammothPingMode#bars() latency bar}, so the latency only gets sent
+ * when the displayed bar changes.</p>
+ *
+ * @see MammothPingMode
+ * @see PlatformProvider#latency(UUID)
+ */
+public final class LatencyMammothEntryProvider implements MammothEntryProvider {
+    private final PlatformProvider platformProvider;
+    private final UUID player;
+    private final Component text;
+    private final TextureProperty skin;
+
+    /**
+     * Creates a new provider.
+     *
+     * @param platformProvider the platform provider
+     * @param player           the player whose latency is displayed
+     * @param text             the text
+     */
+    public LatencyMammothEntryProvider(@NotNull PlatformProvider platformProvider, @NotNull UUID player, @NotNull Component text) {
+        this(platformProvider, player, text, TextureProperty.QUESTION_MARK);
+    }
+
+    /**
+     * Creates a new provider.
+     *
+     * @param platformProvider the platform provider
+     * @param player           the player whose latency is displayed
+     * @param text             the text
+     * @param skin             the skin
+     */
+    public LatencyMammothEntryProvider(@NotNull PlatformProvider platformProvider, @NotNull UUID player, @NotNull Component text, @NotNull TextureProperty skin) {
+        this.platformProvider = platformProvider;
+        this.player = player;
+        this.text = text;
+        this.skin = skin;
+    }
+
+    @Override
+    @NotNull
+    public Component text() {
+        return this.text;
+    }
+
+    @Override
+    @NotNull
+    public TextureProperty skin() {
+        return this.skin;
+    }
+
+    @Override
+    public int ping() {
+        return this.platformProvider.latency(this.player);
+    }
+
+    /**
+     * Returns the player whose latency is displayed.
+     *
+     * @return the player
+     */
+    @NotNull
+    public UUID player() {
+        return this.player;
+    }
+}
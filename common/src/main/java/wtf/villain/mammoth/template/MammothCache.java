@@ -0,0 +1,349 @@
+package wtf.villain.mammoth.template;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of values expiring after a fixed time, meant to share data between
+ * {@link MammothEntryProvider entry providers}.
+ *
+ * <p>The templates of every player often display the same data, which should only be looked up
+ * once per expiry. Concurrent misses of the same key are coalesced into a single load, every
+ * other caller waits for its result instead of loading the value again.</p>
+ *
+ * <p>Once the cache is full, expired values get evicted first, then the least recently used
+ * quarter of the cache. Values which are still loading are never evicted.</p>
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @see AsyncMammothEntryProvider
+ */
+public final class MammothCache<K, V> {
+    // Values used within the same interval are considered equally recent
+    private static final long TOUCH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long ttlNanos;
+    private final int maximumSize;
+    private final Map<K, Value<V>> values;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder coalesced;
+    private final LongAdder evictions;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param ttl         the time after which a loaded value expires
+     * @param maximumSize the maximum amount of cached values
+     */
+    public MammothCache(@NotNull Duration ttl, int maximumSize) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+
+        this.ttlNanos = ttl.toNanos();
+        this.maximumSize = maximumSize;
+        this.values = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.coalesced = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Returns the value of the given key, loading it on the calling thread if it isn't cached or expired.
+     *
+     * <p>If the value is already being loaded by another thread, this method waits for that load
+     * instead. Exceptions thrown by the loader are rethrown to every waiting caller, and nothing gets cached.</p>
+     *
+     * @param key    the key
+     * @param loader the loader of the value
+     * @return the value
+     */
+    public V get(@NotNull K key, @NotNull Function<? super K, ? extends V> loader) {
+        Value<V> value = this.acquire(key);
+
+        if (value.owner != Thread.currentThread()) {
+            return join(value.future);
+        }
+
+        value.owner = null;
+
+        try {
+            this.complete(key, value, loader.apply(key), null);
+        } catch (Throwable e) {
+            // Errors have to complete the waiting callers as well, or the key would never be loaded again
+            this.complete(key, value, null, e);
+            throw e;
+        }
+
+        return value.future.join();
+    }
+
+    /**
+     * Returns the value of the given key, starting an asynchronous load if it isn't cached or expired.
+     *
+     * <p>If the value is already being loaded, the returned future completes with the result of that load.
+     * Failed loads complete every waiting future exceptionally, and nothing gets cached. Every caller receives its own
+     * future, so completing it doesn't affect the cached value.</p>
+     *
+     * @param key    the key
+     * @param loader the loader of the value
+     * @return a future completing with the value
+     */
+    @NotNull
+    public CompletableFuture<V> getAsync(@NotNull K key, @NotNull Function<? super K, ? extends CompletableFuture<? extends V>> loader) {
+        Value<V> value = this.acquire(key);
+
+        if (value.owner != Thread.currentThread()) {
+            return value.future.copy();
+        }
+
+        value.owner = null;
+
+        try {
+            loader.apply(key).whenComplete((result, throwable) -> this.complete(key, value, result, throwable));
+        } catch (Throwable e) {
+            this.complete(key, value, null, e);
+        }
+
+        // Callers get a copy, so completing or timing out their future never changes the cached one
+        return value.future.copy();
+    }
+
+    /**
+     * Removes the value of the given key. Loads in flight still complete their waiting callers.
+     *
+     * @param key the key
+     */
+    public void invalidate(@NotNull K key) {
+        this.values.remove(key);
+    }
+
+    /**
+     * Removes every cached value. The counters are kept.
+     */
+    public void clear() {
+        this.values.clear();
+    }
+
+    @NotNull
+    private Value<V> acquire(@NotNull K key) {
+        long now = System.nanoTime();
+        Value<V> value = this.values.get(key);
+
+        if (value != null && !value.expired(now, this.ttlNanos)) {
+            // Hot values only record their use once per interval, so hits never contend on a shared counter
+            if (now - value.lastUse >= TOUCH_INTERVAL_NANOS) {
+                value.lastUse = now;
+            }
+
+            (value.future.isDone() ? this.hits : this.coalesced).increment();
+            return value;
+        }
+
+        Value<V> created = new Value<>(now);
+        value = this.values.compute(key, (k, current) -> current != null && !current.expired(now, this.ttlNanos) ? current : created);
+
+        if (value != created) {
+            // Another thread missed at the same time and is loading the value already
+            this.coalesced.increment();
+            return value;
+        }
+
+        this.misses.increment();
+        return created;
+    }
+
+    private void complete(@NotNull K key, @NotNull Value<V> value, V result, Throwable throwable) {
+        if (throwable != null) {
+            // Failures are never cached, the next caller loads the value again
+            this.values.remove(key, value);
+            value.future.completeExceptionally(throwable);
+            return;
+        }
+
+        // The value expires relative to the end of its load
+        value.loadedAt = System.nanoTime();
+        value.future.complete(result);
+
+        if (this.values.size() > this.maximumSize) {
+            this.evict();
+        }
+    }
+
+    private synchronized void evict() {
+        long now = System.nanoTime();
+        int before = this.values.size();
+
+        if (before <= this.maximumSize) {
+            return;
+        }
+
+        this.values.values().removeIf(value -> value.expired(now, this.ttlNanos));
+
+        if (this.values.size() > this.maximumSize) {
+            // Values being loaded are never evicted, the last uses are copied first as hits keep updating them
+            List<Map.Entry<K, Value<V>>> loaded = new ArrayList<>();
+
+            for (Map.Entry<K, Value<V>> entry : this.values.entrySet()) {
+                if (entry.getValue().future.isDone()) {
+                    loaded.add(entry);
+                }
+            }
+
+            long[] uses = new long[loaded.size()];
+            Integer[] order = new Integer[loaded.size()];
+
+            for (int i = 0; i < uses.length; i++) {
+                uses[i] = loaded.get(i).getValue().lastUse;
+                order[i] = i;
+            }
+
+            Arrays.sort(order, Comparator.comparingLong(i -> uses[i]));
+
+            // Evicting a quarter at once keeps the amortized cost of the eviction low, the values are evicted by rank
+            int evicted = Math.min(order.length, this.values.size() - this.maximumSize + this.maximumSize / 4);
+
+            for (int i = 0; i < evicted; i++) {
+                Map.Entry<K, Value<V>> entry = loaded.get(order[i]);
+                this.values.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        this.evictions.add(Math.max(0, before - this.values.size()));
+    }
+
+    private static <V> V join(@NotNull CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow what the loader threw, not the wrapper
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the amount of cached values, including the ones being loaded.
+     *
+     * @return the amount of cached values
+     */
+    public int size() {
+        return this.values.size();
+    }
+
+    /**
+     * Returns the maximum amount of cached values.
+     *
+     * @return the maximum amount of cached values
+     */
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns the amount of lookups answered with a loaded value.
+     *
+     * @return the amount of hits
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the amount of lookups which had to load the value.
+     *
+     * @return the amount of misses
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the amount of lookups which waited for the load of another lookup.
+     *
+     * @return the amount of coalesced lookups
+     */
+    public long coalesced() {
+        return this.coalesced.sum();
+    }
+
+    /**
+     * Returns the amount of values evicted from this cache.
+     *
+     * @return the amount of evictions
+     */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns the share of lookups which didn't have to load the value, coalesced lookups included.
+     *
+     * @return the hit rate from {@code 0} to {@code 1}, or {@code 0} if nothing was looked up yet
+     */
+    public double hitRate() {
+        long misses = this.misses();
+        long hits = this.hits() + this.coalesced();
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+
+    @Override
+    public String toString() {
+        return "MammothCache{" +
+            "size=" + this.size() +
+            ", maximumSize=" + this.maximumSize +
+            ", hits=" + this.hits() +
+            ", misses=" + this.misses() +
+            ", coalesced=" + this.coalesced() +
+            ", evictions=" + this.evictions() +
+            '}';
+    }
+
+    private static final class Value<V> {
+        private final CompletableFuture<V> future;
+
+        // The thread which created the value has to load it, it's cleared once the load started
+        private volatile Thread owner;
+
+        private volatile long loadedAt;
+
+        // Races between the callers using the same value are harmless
+        private long lastUse;
+
+        private Value(long lastUse) {
+            this.future = new CompletableFuture<>();
+            this.owner = Thread.currentThread();
+            this.lastUse = lastUse;
+        }
+
+        private boolean expired(long now, long ttlNanos) {
+            return this.future.isDone() && now - this.loadedAt >= ttlNanos;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 import wtf.villain.mammoth.utils.TextureProperty;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 /**
@@ -17,78 +18,153 @@ import java.util.UUID;
 @ApiStatus.Internal
 public final class MammothEntry {
     private static final String NAME_FORMAT = "!mammoth-%02d";
+    private static final String[] NAMES = new String[MammothTemplate.TEMPLATE_MAX_SIZE];
+    private static final UUID[] UUIDS = new UUID[MammothTemplate.TEMPLATE_MAX_SIZE];
+
+    static {
+        // The identity of an entry only depends on its position, so it's computed once per position
+        for (int i = 0; i < MammothTemplate.TEMPLATE_MAX_SIZE; i++) {
+            NAMES[i] = NAME_FORMAT.formatted(i);
+            UUIDS[i] = UUID.nameUUIDFromBytes(NAMES[i].getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final long NO_REVISION = Long.MIN_VALUE;
+
+    private static final int TEXT_CHANGED = 1;
+    private static final int SKIN_CHANGED = 1 << 1;
+    private static final int PING_CHANGED = 1 << 2;
+    private static final int CHANGED = TEXT_CHANGED | SKIN_CHANGED | PING_CHANGED;
+    private static final int DIRTY = 1 << 3;
+
+    // A ping of 0 is valid, so the presence of the pings is tracked separately
+    private static final int HAS_CURRENT_PING = 1 << 4;
+    private static final int HAS_NEW_PING = 1 << 5;
 
     private final int index;
+    private final MammothPingMode pingMode;
+    private final MammothTemplate template;
     private MammothEntryProvider entryProvider;
+    private long providerRevision = NO_REVISION;
+    private Object baked;
 
     private Component currentText;
     private Component newText;
 
+    // The untranslated text of the current text, while the template is translated
+    private Component sourceText;
+
     private TextureProperty currentSkin;
     private TextureProperty newSkin;
 
-    private Integer currentPing;
-    private Integer newPing;
+    private int currentPing;
+    private int newPing;
 
-    private boolean textChanged;
-    private boolean pingChanged;
-    private boolean skinChanged;
-    private boolean dirty;
+    private byte flags;
 
     /**
      * Creates a new {@link MammothEntry entry}.
      *
      * @param entryProvider the initial entry provider
+     * @param pingMode      the ping mode
+     * @param template      the template holding the entry
      */
-    MammothEntry(int index, @NotNull MammothEntryProvider entryProvider) {
+    MammothEntry(int index, @NotNull MammothEntryProvider entryProvider, @NotNull MammothPingMode pingMode, @NotNull MammothTemplate template) {
         this.index = index;
         this.entryProvider = entryProvider;
+        this.pingMode = pingMode;
+        this.template = template;
     }
 
     /**
      * Updates all the values of this {@link MammothEntry entry}.
      */
     public void update() {
+        // Versioned providers don't have to be called while their revision doesn't change
+        if (this.entryProvider instanceof VersionedMammothEntryProvider versioned) {
+            long revision = versioned.revision();
+
+            if (revision == this.providerRevision && this.currentText != null) {
+                this.flags = (byte) ((this.flags & ~CHANGED) | DIRTY);
+                return;
+            }
+
+            this.providerRevision = revision;
+        }
+
+        if (this.entryProvider != null) {
+            this.setNewText(this.entryProvider.text());
+            this.setNewSkin(this.entryProvider.skin());
+            this.setNewPing(this.entryProvider.ping());
+        }
+
+        // The flags are computed locally, and written back once
+        int flags = this.flags & ~CHANGED;
+
         // Checking for text changes
         {
-            if (this.entryProvider != null) {
-                this.setNewText(this.entryProvider.text());
+            Component text = this.newText;
+
+            // Texts are only rendered again when they change
+            if (text != null && this.template.translates()) {
+                if (text == this.sourceText) {
+                    text = this.currentText;
+                } else {
+                    this.sourceText = text;
+                    text = this.template.translate(text);
+                }
+            }
+
+            if (this.currentText == null || !this.currentText.equals(text)) {
+                flags |= TEXT_CHANGED;
             }
 
-            this.textChanged = this.currentText == null || !this.currentText.equals(this.newText);
-            this.currentText = this.newText;
+            this.currentText = text;
         }
 
         // Checking for skin changes
         {
-            if (this.entryProvider != null) {
-                this.setNewSkin(this.entryProvider.skin());
+            if (this.currentSkin == null || !this.currentSkin.equals(this.newSkin)) {
+                flags |= SKIN_CHANGED;
             }
 
-            this.skinChanged = this.currentSkin == null || !this.currentSkin.equals(this.newSkin);
             this.currentSkin = this.newSkin;
         }
 
         // Checking for ping changes
         {
-            if (this.entryProvider != null) {
-                this.setNewPing(this.entryProvider.ping());
+            // Unchanged pings keep the displayed value, which might differ from the new one depending on the ping mode
+            if ((flags & HAS_CURRENT_PING) == 0 || (flags & HAS_NEW_PING) == 0 || this.pingMode.changed(this.currentPing, this.newPing)) {
+                flags |= PING_CHANGED;
+                this.currentPing = this.newPing;
             }
 
-            this.pingChanged = this.currentPing == null || !this.currentPing.equals(this.newPing);
-            this.currentPing = this.newPing;
+            if ((flags & HAS_NEW_PING) != 0) {
+                flags |= HAS_CURRENT_PING;
+            } else {
+                flags &= ~HAS_CURRENT_PING;
+            }
         }
+
+        this.flags = (byte) flags;
+    }
+
+    /**
+     * Makes the {@link MammothEntry entry} render its text again on the next update, as the locale changed.
+     */
+    void relocalize() {
+        this.sourceText = null;
+        this.providerRevision = NO_REVISION;
     }
 
     /**
      * Resets the {@link MammothEntry entry}'s mutation state.
      */
     public void resetState() {
-        this.dirty = false;
+        this.flags &= ~(DIRTY | HAS_NEW_PING);
 
         this.newText = null;
         this.newSkin = null;
-        this.newPing = null;
     }
 
     /**
@@ -97,7 +173,7 @@ public final class MammothEntry {
      * @return {@code true} if any of the values changed, {@code false} otherwise
      */
     public boolean anyChanged() {
-        return this.textChanged || this.pingChanged || this.skinChanged;
+        return (this.flags & CHANGED) != 0;
     }
 
     /**
@@ -106,6 +182,10 @@ public final class MammothEntry {
      * @param entryProvider the new {@link MammothEntryProvider entry provider}
      */
     public void setEntryProvider(@Nullable MammothEntryProvider entryProvider) {
+        if (this.entryProvider != entryProvider) {
+            this.providerRevision = NO_REVISION;
+        }
+
         this.entryProvider = entryProvider;
     }
 
@@ -116,7 +196,7 @@ public final class MammothEntry {
      */
     public void setNewText(@NotNull Component text) {
         this.newText = text;
-        this.dirty = true;
+        this.flags |= DIRTY;
     }
 
     /**
@@ -126,7 +206,7 @@ public final class MammothEntry {
      */
     public void setNewSkin(@NotNull TextureProperty skin) {
         this.newSkin = skin;
-        this.dirty = true;
+        this.flags |= DIRTY;
     }
 
     /**
@@ -136,7 +216,7 @@ public final class MammothEntry {
      */
     void setNewPing(int ping) {
         this.newPing = ping;
-        this.dirty = true;
+        this.flags |= DIRTY | HAS_NEW_PING;
     }
 
     /**
@@ -148,7 +228,7 @@ public final class MammothEntry {
      * @return {@code true} if the entry is dirty, {@code false} otherwise
      */
     public boolean dirty() {
-        return this.dirty;
+        return (this.flags & DIRTY) != 0;
     }
 
     /**
@@ -157,7 +237,7 @@ public final class MammothEntry {
      * @return {@code true} if the text changed, {@code false} otherwise
      */
     public boolean textChanged() {
-        return this.textChanged;
+        return (this.flags & TEXT_CHANGED) != 0;
     }
 
     /**
@@ -166,7 +246,7 @@ public final class MammothEntry {
      * @return {@code true} if the ping changed, {@code false} otherwise
      */
     public boolean pingChanged() {
-        return this.pingChanged;
+        return (this.flags & PING_CHANGED) != 0;
     }
 
     /**
@@ -175,7 +255,7 @@ public final class MammothEntry {
      * @return {@code true} if the skin changed, {@code false} otherwise
      */
     public boolean skinChanged() {
-        return this.skinChanged;
+        return (this.flags & SKIN_CHANGED) != 0;
     }
 
     /**
@@ -231,23 +311,60 @@ public final class MammothEntry {
     /**
      * Returns the current ping of this {@link MammothEntry entry}.
      *
+     * <p>The ping is {@code 0} if the entry wasn't updated yet.</p>
+     *
      * @return the current ping
      */
-    @UnknownNullability
-    public Integer currentPing() {
+    public int currentPing() {
         return this.currentPing;
     }
 
+    /**
+     * Returns if this {@link MammothEntry entry} has a current ping.
+     *
+     * @return {@code true} if the entry has a current ping, {@code false} otherwise
+     */
+    boolean hasCurrentPing() {
+        return (this.flags & HAS_CURRENT_PING) != 0;
+    }
+
     /**
      * Returns the new ping of this {@link MammothEntry entry}.
      *
      * @return the new ping
      */
-    @UnknownNullability
-    Integer newPing() {
+    int newPing() {
         return this.newPing;
     }
 
+    /**
+     * Returns the position of this {@link MammothEntry entry}.
+     *
+     * @return the position
+     */
+    public int index() {
+        return this.index;
+    }
+
+    /**
+     * Returns the platform-specific object cached by the last bake of this {@link MammothEntry entry}.
+     *
+     * @return the cached object, or {@code null} if nothing is cached
+     */
+    @Nullable
+    public Object baked() {
+        return this.baked;
+    }
+
+    /**
+     * Caches a platform-specific object for the next bake of this {@link MammothEntry entry}.
+     *
+     * @param baked the object to cache
+     */
+    public void setBaked(@Nullable Object baked) {
+        this.baked = baked;
+    }
+
     /**
      * Returns the fake name of this {@link MammothEntry entry}.
      *
@@ -255,16 +372,16 @@ public final class MammothEntry {
      */
     @NotNull
     public String name() {
-        return NAME_FORMAT.formatted(this.index);
+        return NAMES[this.index];
     }
 
     /**
-     * Returns the fake name of this {@link MammothEntry entry}.
+     * Returns the fake uuid of this {@link MammothEntry entry}.
      *
-     * @return the fake name
+     * @return the fake uuid
      */
     @NotNull
     public UUID uuid() {
-        return UUID.fromString(this.name());
+        return UUIDS[this.index];
     }
 }
\ No newline at end of file
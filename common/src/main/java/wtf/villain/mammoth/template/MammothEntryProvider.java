@@ -17,10 +17,15 @@ import static net.kyori.adventure.text.Component.empty;
  *  <li> ping / latency
  * </ul>
  *
+ * <p>Providers whose content rarely changes should implement {@link VersionedMammothEntryProvider},
+ * so they are only called when their content actually changed. Providers which don't have to be
+ * refreshed on every update can declare a {@link #refreshInterval() refresh interval}.</p>
+ *
  * @see Component
  * @see MammothEntry
  * @see MammothTemplate
  * @see TextureProperty
+ * @see VersionedMammothEntryProvider
  */
 public interface MammothEntryProvider {
     /**
@@ -50,6 +55,21 @@ public interface MammothEntryProvider {
         return -1;
     }
 
+    /**
+     * Returns the amount of updates between two refreshes of this provider.
+     *
+     * <p>A provider refreshed every {@code n} updates is only called, and only compared with the displayed
+     * values, on every {@code n}-th update. For example a clock displaying seconds, updated every tick (50ms),
+     * can be refreshed every {@code 20} updates.</p>
+     *
+     * @return the interval in updates, {@code 1} to refresh on every update, or {@code 0} to never refresh
+     * the provider after it was set
+     * @see MammothTemplate#provider(int, MammothEntryProvider, int)
+     */
+    default int refreshInterval() {
+        return 1;
+    }
+
     /**
      * Creates a {@link MammothEntryProvider tab list entry provider} using the given text.
      *
@@ -129,11 +149,13 @@ public interface MammothEntryProvider {
      */
     @NotNull
     static MammothEntryProvider entryProvider(@NotNull Component text, @NotNull TextureProperty property, int ping) {
+        // These providers never change, so they only have to be called once
         // @formatter:off
-        return new MammothEntryProvider() {
+        return new VersionedMammothEntryProvider() {
             @Override public @NotNull Component text() { return text; }
             @Override public @NotNull TextureProperty skin() { return property; }
             @Override public int ping() { return ping; }
+            @Override public long revision() { return 0; }
         };
         // @formatter:on
     }
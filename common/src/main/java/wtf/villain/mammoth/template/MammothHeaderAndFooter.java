@@ -2,6 +2,7 @@ package wtf.villain.mammoth.template;
 
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnknownNullability;
 
@@ -12,17 +13,23 @@ import org.jetbrains.annotations.UnknownNullability;
  */
 @ApiStatus.Internal
 public final class MammothHeaderAndFooter {
+    private final MammothTemplate template;
+
     private Component currentHeader;
     private Component newHeader;
 
     private Component currentFooter;
     private Component newFooter;
 
+    // The untranslated header and footer of the current ones, while the template is translated
+    private Component sourceHeader;
+    private Component sourceFooter;
+
     private boolean headerChanged;
     private boolean footerChanged;
 
-    MammothHeaderAndFooter() {
-        // empty
+    MammothHeaderAndFooter(@NotNull MammothTemplate template) {
+        this.template = template;
     }
 
     /**
@@ -31,19 +38,52 @@ public final class MammothHeaderAndFooter {
     public void update() {
         // Checking for header changes
         {
-            this.headerChanged = (this.currentHeader == null && this.newHeader != null) ||
-                (this.currentHeader != null && !this.currentHeader.equals(this.newHeader));
-            this.currentHeader = this.newHeader;
+            Component header = this.newHeader;
+
+            // Headers are only rendered again when they change
+            if (header != null && this.template.translates()) {
+                if (header == this.sourceHeader) {
+                    header = this.currentHeader;
+                } else {
+                    this.sourceHeader = header;
+                    header = this.template.translate(header);
+                }
+            }
+
+            this.headerChanged = (this.currentHeader == null && header != null) ||
+                (this.currentHeader != null && !this.currentHeader.equals(header));
+            this.currentHeader = header;
         }
 
         // Checking for footer changes
         {
-            this.footerChanged = (this.currentFooter == null && this.newFooter != null) ||
-                (this.currentFooter != null && !this.currentFooter.equals(this.newFooter));
-            this.currentFooter = this.newFooter;
+            Component footer = this.newFooter;
+
+            // Footers are only rendered again when they change
+            if (footer != null && this.template.translates()) {
+                if (footer == this.sourceFooter) {
+                    footer = this.currentFooter;
+                } else {
+                    this.sourceFooter = footer;
+                    footer = this.template.translate(footer);
+                }
+            }
+
+            this.footerChanged = (this.currentFooter == null && footer != null) ||
+                (this.currentFooter != null && !this.currentFooter.equals(footer));
+            this.currentFooter = footer;
         }
     }
 
+    /**
+     * Makes the {@link MammothHeaderAndFooter object} render its header and footer again on the next update, as the
+     * locale changed.
+     */
+    void relocalize() {
+        this.sourceHeader = null;
+        this.sourceFooter = null;
+    }
+
     /**
      * Resets the {@link MammothHeaderAndFooter object}'s mutation state.
      */
@@ -80,12 +120,13 @@ public final class MammothHeaderAndFooter {
     }
 
     /**
-     * Returns the {@link Component current header} of this {@link MammothHeaderAndFooter object}.
+     * Returns the {@link Component current header} of this {@link MammothHeaderAndFooter object},
+     * rendered for the {@link MammothTemplate#locale() locale} of the template.
      *
      * @return the {@link Component current header}
      */
     @UnknownNullability
-    Component currentHeader() {
+    public Component currentHeader() {
         return this.currentHeader;
     }
 
@@ -100,12 +141,13 @@ public final class MammothHeaderAndFooter {
     }
 
     /**
-     * Returns the {@link Component current footer} of this {@link MammothHeaderAndFooter object}.
+     * Returns the {@link Component current footer} of this {@link MammothHeaderAndFooter object},
+     * rendered for the {@link MammothTemplate#locale() locale} of the template.
      *
      * @return the {@link Component current footer}
      */
     @UnknownNullability
-    Component currentFooter() {
+    public Component currentFooter() {
         return this.currentFooter;
     }
 
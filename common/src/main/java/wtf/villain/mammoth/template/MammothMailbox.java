@@ -0,0 +1,177 @@
+package wtf.villain.mammoth.template;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stages mutations of a {@link MammothTemplate template} written from any thread.
+ *
+ * <p>The mutation methods of a template must only be called while the template gets updated. Mutations
+ * coming from other threads (database callbacks, proxy messages) can be staged in the mailbox of the
+ * template instead, without any locking. The mailbox gets drained on the next update of the template, right
+ * after {@link MammothTemplate#update()}, and only the last mutation staged for every entry, the header and
+ * the footer gets applied.</p>
+ *
+ * <p>Staged values behave like values set during the update, so on templates {@link MammothTemplate#updateEntryStates()
+ * updating their entry states}, they're only displayed for a single update. Stage {@link MammothEntryProvider providers}
+ * to keep displaying a value.</p>
+ *
+ * @see MammothTemplate#mailbox()
+ */
+public final class MammothMailbox {
+    private final AtomicReferenceArray<Staged> entries;
+    private final AtomicReference<Staged> header;
+    private final AtomicReference<Staged> footer;
+    private final AtomicBoolean pending;
+
+    MammothMailbox() {
+        this.entries = new AtomicReferenceArray<>(MammothTemplate.TEMPLATE_MAX_SIZE);
+        this.header = new AtomicReference<>();
+        this.footer = new AtomicReference<>();
+        this.pending = new AtomicBoolean();
+    }
+
+    /**
+     * Stages the text, skin and ping property of the {@link MammothEntry tab list entry} at the given position.
+     *
+     * @param pos  the position of the entry
+     * @param text the text
+     * @param skin the skin
+     * @param ping the ping
+     * @see MammothTemplate#set(int, Component, TextureProperty, int)
+     */
+    public void set(int pos, @NotNull Component text, @NotNull TextureProperty skin, int ping) {
+        this.stage(pos, MammothEntryProvider.entryProvider(text, skin, ping), Staged.VALUES);
+    }
+
+    /**
+     * Stages the text property of the {@link MammothEntry tab list entry} at the given position.
+     *
+     * @param pos  the position of the entry
+     * @param text the text
+     * @see MammothTemplate#set(int, Component)
+     */
+    public void set(int pos, @NotNull Component text) {
+        this.set(pos, text, MammothTemplate.DEFAULT_PROVIDER.skin(), MammothTemplate.DEFAULT_PROVIDER.ping());
+    }
+
+    /**
+     * Stages the {@link MammothEntryProvider entry provider} of the {@link MammothEntry tab list entry} at the given position.
+     *
+     * @param pos      the position of the entry
+     * @param provider the provider
+     * @see MammothTemplate#provider(int, MammothEntryProvider)
+     */
+    public void provider(int pos, @NotNull MammothEntryProvider provider) {
+        this.provider(pos, provider, provider.refreshInterval());
+    }
+
+    /**
+     * Stages the {@link MammothEntryProvider entry provider} of the {@link MammothEntry tab list entry} at the given position,
+     * refreshed every {@code refreshInterval} updates.
+     *
+     * @param pos             the position of the entry
+     * @param provider        the provider
+     * @param refreshInterval the amount of updates between two refreshes, or {@code 0} to never refresh the provider
+     * @see MammothTemplate#provider(int, MammothEntryProvider, int)
+     */
+    public void provider(int pos, @NotNull MammothEntryProvider provider, int refreshInterval) {
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("refreshInterval must not be negative");
+        }
+
+        this.stage(pos, provider, refreshInterval);
+    }
+
+    /**
+     * Stages the value of the header.
+     *
+     * @param header the header
+     * @see MammothTemplate#header(Component)
+     */
+    public void header(@Nullable Component header) {
+        this.header.set(new Staged(header));
+        this.pending.set(true);
+    }
+
+    /**
+     * Stages the value of the footer.
+     *
+     * @param footer the footer
+     * @see MammothTemplate#footer(Component)
+     */
+    public void footer(@Nullable Component footer) {
+        this.footer.set(new Staged(footer));
+        this.pending.set(true);
+    }
+
+    /**
+     * Applies the staged mutations to the given template, and clears them.
+     *
+     * @param template the template
+     */
+    void drain(@NotNull MammothTemplate template) {
+        // The flag is cleared first, so mutations staged while draining are applied on the next drain at the latest
+        if (!this.pending.getAndSet(false)) {
+            return;
+        }
+
+        for (int pos = 0; pos < MammothTemplate.TEMPLATE_MAX_SIZE; pos++) {
+            Staged staged = this.entries.getAndSet(pos, null);
+
+            if (staged == null) {
+                continue;
+            }
+
+            if (staged.refreshInterval == Staged.VALUES) {
+                template.set(pos, staged.provider);
+            } else {
+                template.provider(pos, staged.provider, staged.refreshInterval);
+            }
+        }
+
+        Staged header = this.header.getAndSet(null);
+        Staged footer = this.footer.getAndSet(null);
+
+        if (header != null) {
+            template.header(header.component);
+        }
+
+        if (footer != null) {
+            template.footer(footer.component);
+        }
+    }
+
+    private void stage(int pos, @NotNull MammothEntryProvider provider, int refreshInterval) {
+        // Later mutations of the same entry replace the earlier ones
+        this.entries.set(pos, new Staged(provider, refreshInterval));
+        this.pending.set(true);
+    }
+
+    private static final class Staged {
+        // Static values are staged as a provider, and set instead of being provided
+        private static final int VALUES = -1;
+
+        private final MammothEntryProvider provider;
+        private final int refreshInterval;
+        private final Component component;
+
+        private Staged(@NotNull MammothEntryProvider provider, int refreshInterval) {
+            this.provider = provider;
+            this.refreshInterval = refreshInterval;
+            this.component = null;
+        }
+
+        private Staged(@Nullable Component component) {
+            this.provider = null;
+            this.refreshInterval = VALUES;
+            this.component = component;
+        }
+    }
+}
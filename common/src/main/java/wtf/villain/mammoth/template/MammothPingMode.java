@@ -0,0 +1,121 @@
+package wtf.villain.mammoth.template;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Decides when the ping of a {@link MammothEntry tab list entry} is considered changed, and has to be sent.
+ *
+ * <p>Vanilla clients don't display the ping itself, only a latency bar with six states. In
+ * {@link #bars() bars} mode, pings are compared by the state they're displayed with, so pings
+ * mirroring real latency only get sent when the displayed bar changes.</p>
+ *
+ * @see MammothTemplate#pingMode()
+ */
+public final class MammothPingMode {
+    /**
+     * Every difference of the ping is a change.
+     */
+    public static final MammothPingMode EXACT = new MammothPingMode(false, 0);
+
+    private static final MammothPingMode BARS = new MammothPingMode(true, 0);
+
+    // The upper bounds (exclusive) of the latency bars displayed by the vanilla client, from 5 bars to 2 bars
+    private static final int[] BAR_BOUNDS = {150, 300, 600, 1000};
+
+    private final boolean bars;
+    private final int hysteresis;
+
+    private MammothPingMode(boolean bars, int hysteresis) {
+        this.bars = bars;
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     * Returns a mode comparing pings by their displayed latency bar.
+     *
+     * @return the mode
+     */
+    @NotNull
+    public static MammothPingMode bars() {
+        return BARS;
+    }
+
+    /**
+     * Returns a mode comparing pings by their displayed latency bar, with hysteresis.
+     *
+     * <p>A ping only moves to another bar once it's at least {@code hysteresis} milliseconds past
+     * the bound of the displayed bar, so pings oscillating around a bound don't flicker.</p>
+     *
+     * @param hysteresis the hysteresis in milliseconds
+     * @return the mode
+     */
+    @NotNull
+    public static MammothPingMode bars(int hysteresis) {
+        if (hysteresis < 0) {
+            throw new IllegalArgumentException("hysteresis must not be negative");
+        }
+
+        return hysteresis == 0 ? BARS : new MammothPingMode(true, hysteresis);
+    }
+
+    /**
+     * Returns the latency bar displayed by the vanilla client for the given ping.
+     *
+     * @param ping the ping
+     * @return the amount of bars from {@code 1} to {@code 5}, or {@code 0} for negative pings (no connection)
+     */
+    public static int bar(int ping) {
+        if (ping < 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < BAR_BOUNDS.length; i++) {
+            if (ping < BAR_BOUNDS[i]) {
+                return 5 - i;
+            }
+        }
+
+        return 1;
+    }
+
+    /**
+     * Returns if the displayed ping has to be replaced by the new ping.
+     *
+     * @param displayed the displayed ping
+     * @param ping      the new ping
+     * @return {@code true} if the ping changed, {@code false} otherwise
+     */
+    public boolean changed(int displayed, int ping) {
+        if (!this.bars) {
+            return displayed != ping;
+        }
+
+        int displayedBar = bar(displayed);
+        int bar = bar(ping);
+
+        if (displayedBar == bar) {
+            return false;
+        }
+
+        // Losing the connection, or getting it back is always displayed
+        if (this.hysteresis == 0 || displayedBar == 0 || bar == 0) {
+            return true;
+        }
+
+        // The ping has to be far enough from the bound of the displayed bar
+        if (bar < displayedBar) {
+            return ping >= BAR_BOUNDS[5 - displayedBar] + this.hysteresis;
+        } else {
+            return ping < BAR_BOUNDS[4 - displayedBar] - this.hysteresis;
+        }
+    }
+
+    /**
+     * Returns the hysteresis of this mode.
+     *
+     * @return the hysteresis in milliseconds
+     */
+    public int hysteresis() {
+        return this.hysteresis;
+    }
+}
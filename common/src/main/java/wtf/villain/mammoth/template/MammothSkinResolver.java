@@ -0,0 +1,105 @@
+package wtf.villain.mammoth.template;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.utils.MammothSkinStore;
+import wtf.villain.mammoth.utils.SkinResolver;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link SkinResolver resolver} caching the skins of another resolver.
+ *
+ * <p>Resolved skins are kept in a bounded {@link MammothCache cache}, and persisted in an optional
+ * {@link MammothSkinStore store}, which is checked before a skin gets resolved, so skins survive restarts. Skins
+ * expire after the same time in the cache and in the store, and expired and invalidated skins are resolved again.
+ * A skin restored from the store is therefore at most twice as old as the expiry time.
+ * Concurrent resolutions of the same player are deduplicated, only one of them calls the underlying resolver.
+ * Failed resolutions are not cached.</p>
+ *
+ * @see SkinMammothEntryProvider
+ */
+public final class MammothSkinResolver implements SkinResolver {
+    private final SkinResolver resolver;
+    private final MammothSkinStore store;
+    private final MammothCache<UUID, TextureProperty> cache;
+    private final Duration ttl;
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param resolver    the resolver
+     * @param store       the store persisting the skins, or {@code null} to only cache them in memory
+     * @param ttl         the time after which a skin gets resolved again
+     * @param maximumSize the maximum amount of skins cached in memory
+     */
+    public MammothSkinResolver(@NotNull SkinResolver resolver, @Nullable MammothSkinStore store, @NotNull Duration ttl, int maximumSize) {
+        this.resolver = resolver;
+        this.store = store;
+        this.cache = new MammothCache<>(ttl, maximumSize);
+        this.ttl = ttl;
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<TextureProperty> resolve(@NotNull UUID uuid) {
+        return this.cache.getAsync(uuid, this::load);
+    }
+
+    /**
+     * Returns the skin of the given player if it's resolved, and starts resolving it otherwise.
+     *
+     * @param uuid the player
+     * @return the skin, or {@link TextureProperty#QUESTION_MARK} while it's being resolved
+     */
+    @NotNull
+    public TextureProperty skin(@NotNull UUID uuid) {
+        CompletableFuture<TextureProperty> future = this.resolve(uuid);
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : TextureProperty.QUESTION_MARK;
+    }
+
+    /**
+     * Removes the cached skin of the given player, so it's resolved again on the next request.
+     * The persisted skin is only replaced once the new one got resolved.
+     *
+     * @param uuid the player
+     */
+    public void invalidate(@NotNull UUID uuid) {
+        if (this.store != null) {
+            this.store.expire(uuid);
+        }
+
+        this.cache.invalidate(uuid);
+    }
+
+    /**
+     * Returns the cache holding the resolved skins, mostly useful for its statistics.
+     *
+     * @return the cache
+     */
+    @NotNull
+    public MammothCache<UUID, TextureProperty> cache() {
+        return this.cache;
+    }
+
+    @NotNull
+    private CompletableFuture<TextureProperty> load(@NotNull UUID uuid) {
+        // Outdated skins are kept in the store until they got resolved again, but they're never restored
+        TextureProperty stored = this.store != null ? this.store.get(uuid, this.ttl) : null;
+
+        if (stored != null) {
+            return CompletableFuture.completedFuture(stored);
+        }
+
+        return this.resolver.resolve(uuid).thenApply(skin -> {
+            if (this.store != null) {
+                this.store.put(uuid, skin);
+            }
+
+            return skin;
+        });
+    }
+}
@@ -0,0 +1,161 @@
+package wtf.villain.mammoth.template;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A compact set of {@link MammothEntry entry} positions, backed by two {@code long}s.
+ *
+ * <p>Iterating the set only visits the positions which are actually in it:</p>
+ *
+ * <pre>{@code
+ * for (int pos = slots.next(0); pos >= 0; pos = slots.next(pos + 1)) {
+ *     // ...
+ * }
+ * }</pre>
+ *
+ * <p>Sets are also used to declare the {@link MammothTemplate#layout() layout} of a template.</p>
+ *
+ * @see MammothTemplate#TEMPLATE_MAX_SIZE
+ */
+public final class MammothSlotSet {
+    private static final long HIGH_MASK = (1L << (MammothTemplate.TEMPLATE_MAX_SIZE - Long.SIZE)) - 1;
+
+    private long low;
+    private long high;
+
+    /**
+     * Creates an empty set.
+     */
+    public MammothSlotSet() {
+        // empty
+    }
+
+    /**
+     * Adds a position to this set.
+     *
+     * @param pos the position
+     */
+    public void add(int pos) {
+        if (pos < Long.SIZE) {
+            this.low |= 1L << pos;
+        } else {
+            this.high |= 1L << (pos - Long.SIZE);
+        }
+    }
+
+    /**
+     * Removes a position from this set.
+     *
+     * @param pos the position
+     */
+    public void remove(int pos) {
+        if (pos < Long.SIZE) {
+            this.low &= ~(1L << pos);
+        } else {
+            this.high &= ~(1L << (pos - Long.SIZE));
+        }
+    }
+
+    /**
+     * Returns if this set contains the given position.
+     *
+     * @param pos the position
+     * @return {@code true} if the position is in this set, {@code false} otherwise
+     */
+    public boolean contains(int pos) {
+        if (pos < Long.SIZE) {
+            return (this.low & (1L << pos)) != 0;
+        } else {
+            return (this.high & (1L << (pos - Long.SIZE))) != 0;
+        }
+    }
+
+    /**
+     * Returns the first position in this set which is greater or equal to the given position.
+     *
+     * @param from the position to start from
+     * @return the next position, or {@code -1} if there are no more positions
+     */
+    public int next(int from) {
+        if (from < Long.SIZE) {
+            long low = this.low & (-1L << from);
+
+            if (low != 0) {
+                return Long.numberOfTrailingZeros(low);
+            }
+
+            from = Long.SIZE;
+        }
+
+        if (from >= MammothTemplate.TEMPLATE_MAX_SIZE) {
+            return -1;
+        }
+
+        long high = this.high & (-1L << (from - Long.SIZE));
+        return high != 0 ? Long.SIZE + Long.numberOfTrailingZeros(high) : -1;
+    }
+
+    /**
+     * Adds every position of the given set to this set.
+     *
+     * @param other the other set
+     */
+    public void addAll(@NotNull MammothSlotSet other) {
+        this.low |= other.low;
+        this.high |= other.high;
+    }
+
+    /**
+     * Removes every position which isn't in the given set from this set.
+     *
+     * @param other the other set
+     */
+    public void retainAll(@NotNull MammothSlotSet other) {
+        this.low &= other.low;
+        this.high &= other.high;
+    }
+
+    /**
+     * Replaces the content of this set with the content of the given set.
+     *
+     * @param other the other set
+     */
+    public void set(@NotNull MammothSlotSet other) {
+        this.low = other.low;
+        this.high = other.high;
+    }
+
+    /**
+     * Adds every position of a {@link MammothTemplate template} to this set.
+     */
+    public void fill() {
+        this.low = -1L;
+        this.high = HIGH_MASK;
+    }
+
+    /**
+     * Removes every position from this set.
+     */
+    public void clear() {
+        this.low = 0;
+        this.high = 0;
+    }
+
+    /**
+     * Returns if this set is empty.
+     *
+     * @return {@code true} if the set is empty, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return this.low == 0 && this.high == 0;
+    }
+
+    /**
+     * Returns the amount of positions in this set.
+     *
+     * @return the amount of positions
+     */
+    public int size() {
+        return Long.bitCount(this.low) + Long.bitCount(this.high);
+    }
+}
@@ -7,6 +7,9 @@ import org.jetbrains.annotations.Nullable;
 import wtf.villain.mammoth.tablist.MammothTabList;
 import wtf.villain.mammoth.utils.TextureProperty;
 
+import java.util.Locale;
+import java.util.Objects;
+
 import static net.kyori.adventure.text.Component.empty;
 
 /**
@@ -54,15 +57,41 @@ public abstract class MammothTemplate {
     private final MammothEntry[] entries;
     private final MammothHeaderAndFooter headerAndFooter;
 
+    private final MammothSlotSet touchedSlots;
+    private final MammothSlotSet previouslyTouchedSlots;
+    private final MammothSlotSet providedSlots;
+    private final MammothSlotSet usedSlots;
+    private final MammothTranslationCache translationCache;
+    private MammothTimingWheel timingWheel;
+    private volatile MammothMailbox mailbox;
+    private Locale locale;
+    private boolean collected;
+
     /**
      * Creates a new template.
      */
     public MammothTemplate() {
         this.entries = new MammothEntry[TEMPLATE_MAX_SIZE];
-        this.headerAndFooter = new MammothHeaderAndFooter();
+        this.headerAndFooter = new MammothHeaderAndFooter(this);
+        this.touchedSlots = new MammothSlotSet();
+        this.previouslyTouchedSlots = new MammothSlotSet();
+        this.providedSlots = new MammothSlotSet();
+        this.usedSlots = new MammothSlotSet();
+        this.usedSlots.set(layout());
+        this.translationCache = translationCache();
+
+        MammothEntryProvider defaultProvider = defaultProvider();
+        MammothPingMode pingMode = pingMode();
 
         for (int i = 0; i < TEMPLATE_MAX_SIZE; i++) {
-            this.entries[i] = new MammothEntry(i, defaultProvider());
+            this.entries[i] = new MammothEntry(i, defaultProvider, pingMode, this);
+        }
+
+        if (defaultProvider != DEFAULT_PROVIDER) {
+            // Custom default providers might not be static
+            for (int i = this.usedSlots.next(0); i >= 0; i = this.usedSlots.next(i + 1)) {
+                this.track(i, defaultProvider.refreshInterval());
+            }
         }
     }
 
@@ -89,6 +118,117 @@ public abstract class MammothTemplate {
         return true;
     }
 
+    /**
+     * Returns the {@link MammothPingMode mode} deciding when the ping of an entry changed.
+     *
+     * <p>This method is called once when the template gets created.</p>
+     *
+     * @return the ping mode
+     */
+    @NotNull
+    public MammothPingMode pingMode() {
+        return MammothPingMode.EXACT;
+    }
+
+    /**
+     * Returns the positions of the {@link MammothEntry tab list entries} used by this template.
+     *
+     * <p>This method is called once when the template gets created. Unused entries are never updated, and are
+     * never sent to the players, so a template using a part of the tab list only costs as much as that part.</p>
+     *
+     * <p>Clients lay out the entries in name order, in columns of up to {@link #TEMPLATE_MAX_ROWS} rows, and
+     * every column gets the same amount of rows. Use {@link #grid(int, int)} to get a layout which is
+     * displayed as it's addressed by {@link #pos(int, int)}.</p>
+     *
+     * @return the used positions, every position by default
+     */
+    @NotNull
+    public MammothSlotSet layout() {
+        return grid(TEMPLATE_MAX_COLUMNS, TEMPLATE_MAX_ROWS);
+    }
+
+    /**
+     * Returns the layout of the first {@code columns} columns, using the first {@code rows} rows of every column.
+     *
+     * @param columns the amount of columns
+     * @param rows    the amount of rows
+     * @return the layout
+     * @throws IllegalArgumentException if the client would lay out the entries differently
+     * @see #layout()
+     */
+    @NotNull
+    public static MammothSlotSet grid(int columns, int rows) {
+        if (columns < 1 || columns > TEMPLATE_MAX_COLUMNS || rows < 1 || rows > TEMPLATE_MAX_ROWS) {
+            throw new IllegalArgumentException("the grid must fit into the tab list");
+        }
+
+        // Clients only use as many columns as needed to keep every column within the maximum rows
+        if ((columns * rows + TEMPLATE_MAX_ROWS - 1) / TEMPLATE_MAX_ROWS != columns) {
+            throw new IllegalArgumentException("a client would display " + columns * rows + " entries in fewer than " + columns + " columns");
+        }
+
+        MammothSlotSet slots = new MammothSlotSet();
+
+        for (int x = 0; x < columns; x++) {
+            for (int y = 0; y < rows; y++) {
+                slots.add(x * TEMPLATE_MAX_ROWS + y);
+            }
+        }
+
+        return slots;
+    }
+
+    /**
+     * Returns the {@link MammothTranslationCache cache} rendering the texts, header and footer of this template
+     * for its {@link #locale() locale}.
+     *
+     * <p>This method is called once when the template gets created. Templates without a cache are never translated.</p>
+     *
+     * @return the translation cache, or {@code null} to disable translation
+     * @see MammothTranslationCache#global()
+     */
+    @Nullable
+    public MammothTranslationCache translationCache() {
+        return null;
+    }
+
+    /**
+     * Returns the {@link Locale locale} the texts, header and footer of this template are rendered for.
+     *
+     * <p>This method is called on every update if the template has a {@link #translationCache() translation cache}.
+     * Once the locale changes, every entry gets rendered again.</p>
+     *
+     * @return the locale, or {@code null} to display the components as they are
+     */
+    @Nullable
+    public Locale locale() {
+        return null;
+    }
+
+    /**
+     * Returns the {@link MammothMailbox mailbox} staging mutations of this template from any thread.
+     *
+     * <p>The mailbox is drained on every update, after {@link #update()} got called.</p>
+     *
+     * @return the mailbox
+     */
+    @NotNull
+    public final MammothMailbox mailbox() {
+        MammothMailbox mailbox = this.mailbox;
+
+        if (mailbox == null) {
+            synchronized (this) {
+                mailbox = this.mailbox;
+
+                if (mailbox == null) {
+                    this.mailbox = mailbox = new MammothMailbox();
+                }
+            }
+        }
+
+        return mailbox;
+    }
+
     /**
      * Returns the {@link MammothEntryProvider entry provider} for entries without content.
      *
@@ -362,6 +502,9 @@ public abstract class MammothTemplate {
         container.setNewText(text);
         container.setNewSkin(skin);
         container.setNewPing(ping);
+
+        this.touchedSlots.add(pos);
+        this.track(pos, 0);
     }
 
     /**
@@ -386,7 +529,167 @@ public abstract class MammothTemplate {
      * the provider gets removed.
      */
     public final void provider(int pos, @NotNull MammothEntryProvider provider) {
+        provider(pos, provider, provider.refreshInterval());
+    }
+
+    /**
+     * Sets the {@link MammothEntryProvider entry provider} of the {@link MammothEntry tab list entry} at the given position,
+     * refreshed every {@code refreshInterval} updates.
+     *
+     * @param x               the x position of the entry
+     * @param y               the y position of the entry
+     * @param provider        the provider
+     * @param refreshInterval the amount of updates between two refreshes, or {@code 0} to never refresh the provider
+     * @see MammothEntryProvider#refreshInterval()
+     */
+    public final void provider(int x, int y, @NotNull MammothEntryProvider provider, int refreshInterval) {
+        provider(pos(x, y), provider, refreshInterval);
+    }
+
+    /**
+     * Sets the {@link MammothEntryProvider entry provider} of the {@link MammothEntry tab list entry} at the given position,
+     * refreshed every {@code refreshInterval} updates.
+     *
+     * @param pos             the position of the entry
+     * @param provider        the provider
+     * @param refreshInterval the amount of updates between two refreshes, or {@code 0} to never refresh the provider
+     * @see MammothEntryProvider#refreshInterval()
+     */
+    public final void provider(int pos, @NotNull MammothEntryProvider provider, int refreshInterval) {
+        if (refreshInterval < 0) {
+            throw new IllegalArgumentException("refreshInterval must not be negative");
+        }
+
+        this.entries[pos].setEntryProvider(provider);
+        this.touchedSlots.add(pos);
+
+        // The default provider is static, it only has to be polled once
+        this.track(pos, provider != DEFAULT_PROVIDER ? refreshInterval : 0);
+    }
+
+    /**
+     * Makes the {@link MammothEntry tab list entry} at the given position fall back to the
+     * {@link #defaultProvider() default provider}, because it has nothing in it.
+     *
+     * @param pos the position of the entry
+     */
+    @ApiStatus.Internal
+    public final void fallback(int pos) {
+        MammothEntryProvider provider = defaultProvider();
         this.entries[pos].setEntryProvider(provider);
+
+        if (provider != DEFAULT_PROVIDER) {
+            this.track(pos, provider.refreshInterval());
+        }
+    }
+
+    /**
+     * Tracks the entry at the given position, so it gets refreshed every {@code refreshInterval} updates.
+     *
+     * @param pos             the position of the entry
+     * @param refreshInterval the refresh interval, or {@code 0} to stop tracking the entry
+     */
+    private void track(int pos, int refreshInterval) {
+        if (refreshInterval == 1) {
+            this.providedSlots.add(pos);
+        } else {
+            this.providedSlots.remove(pos);
+        }
+
+        if (refreshInterval > 1) {
+            if (this.timingWheel == null) {
+                this.timingWheel = new MammothTimingWheel();
+            }
+
+            this.timingWheel.schedule(pos, refreshInterval);
+        } else if (this.timingWheel != null) {
+            this.timingWheel.cancel(pos);
+        }
+    }
+
+    /**
+     * Collects the positions of the {@link MammothEntry tab list entries} which might have changed since the
+     * previous call of this method, so only those have to be updated.
+     *
+     * <p>These are the entries mutated since the previous call, the entries driven by a non-static
+     * {@link MammothEntryProvider provider} whose {@link MammothEntryProvider#refreshInterval() refresh interval}
+     * elapsed, and if {@link #updateEntryStates()} is enabled, the entries mutated before the previous call
+     * (as their state has been reset). The first call collects every entry.</p>
+     *
+     * <p>The mutations staged in the {@link #mailbox() mailbox} are applied first.</p>
+     *
+     * @param slots the set to collect the positions into
+     */
+    @ApiStatus.Internal
+    public final void collectDirtySlots(@NotNull MammothSlotSet slots) {
+        MammothMailbox mailbox = this.mailbox;
+
+        if (mailbox != null) {
+            mailbox.drain(this);
+        }
+
+        if (this.translationCache != null) {
+            this.localize(locale());
+        }
+
+        if (!this.collected) {
+            slots.set(this.usedSlots);
+            this.collected = true;
+        } else {
+            slots.set(this.touchedSlots);
+            slots.addAll(this.providedSlots);
+
+            if (updateEntryStates()) {
+                slots.addAll(this.previouslyTouchedSlots);
+            }
+        }
+
+        if (this.timingWheel != null) {
+            this.timingWheel.advance(slots);
+        }
+
+        // Unused entries are never updated, even if they got mutated
+        slots.retainAll(this.usedSlots);
+
+        this.previouslyTouchedSlots.set(this.touchedSlots);
+        this.touchedSlots.clear();
+    }
+
+    private void localize(@Nullable Locale locale) {
+        if (Objects.equals(this.locale, locale)) {
+            return;
+        }
+
+        this.locale = locale;
+
+        // Every entry has to be rendered again, even the ones whose provider wouldn't be refreshed
+        for (MammothEntry entry : this.entries) {
+            entry.relocalize();
+        }
+
+        this.headerAndFooter.relocalize();
+
+        this.touchedSlots.fill();
+    }
+
+    /**
+     * Renders the given component for the {@link #locale() locale} of this template.
+     *
+     * @param component the component
+     * @return the rendered component, or the component itself if the template isn't translated
+     */
+    @Nullable
+    Component translate(@Nullable Component component) {
+        return component == null || this.locale == null ? component : this.translationCache.render(component, this.locale);
+    }
+
+    /**
+     * Returns if the components of this template are rendered for a {@link #locale() locale}.
+     *
+     * @return {@code true} if the template is translated, {@code false} otherwise
+     */
+    boolean translates() {
+        return this.locale != null;
     }
 
     /**
@@ -444,13 +747,21 @@ public abstract class MammothTemplate {
     }
 
     private int currentPing(@NotNull MammothEntry container) {
-        Integer current = container.currentPing();
-
-        if (current == null) {
-            current = container.newPing();
-        }
+        return container.hasCurrentPing() ? container.currentPing() : container.newPing();
+    }
 
-        return current;
+    /**
+     * Returns the positions of the {@link MammothEntry tab list entries} used by this template.
+     *
+     * <p>The returned set must not be modified.</p>
+     *
+     * @return the used positions
+     * @see #layout()
+     */
+    @NotNull
+    @ApiStatus.Internal
+    public final MammothSlotSet usedSlots() {
+        return this.usedSlots;
     }
 
     /**
@@ -0,0 +1,95 @@
+package wtf.villain.mammoth.template;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+import static wtf.villain.mammoth.template.MammothTemplate.TEMPLATE_MAX_SIZE;
+
+/**
+ * A hashed timing wheel deciding which {@link MammothEntry entries} have to be refreshed on an update.
+ *
+ * <p>Every scheduled entry sits in the bucket of its next refresh. Advancing the wheel only visits
+ * the bucket of the current update, so the cost of an update doesn't depend on the amount of
+ * scheduled entries. Intervals longer than the wheel wait for multiple rounds.</p>
+ *
+ * @see MammothEntryProvider#refreshInterval()
+ */
+final class MammothTimingWheel {
+    private static final int BUCKETS = 32;
+    private static final int MASK = BUCKETS - 1;
+
+    private final MammothSlotSet[] buckets;
+    private final MammothSlotSet scheduled;
+    private final int[] intervals;
+    private final int[] rounds;
+    private final byte[] bucketOf;
+    private int tick;
+
+    MammothTimingWheel() {
+        this.buckets = new MammothSlotSet[BUCKETS];
+        this.scheduled = new MammothSlotSet();
+        this.intervals = new int[TEMPLATE_MAX_SIZE];
+        this.rounds = new int[TEMPLATE_MAX_SIZE];
+        this.bucketOf = new byte[TEMPLATE_MAX_SIZE];
+
+        Arrays.setAll(this.buckets, i -> new MammothSlotSet());
+    }
+
+    /**
+     * Schedules the entry at the given position to be refreshed every {@code interval} updates,
+     * starting {@code interval} updates from now.
+     *
+     * @param pos      the position of the entry
+     * @param interval the interval, must be positive
+     */
+    void schedule(int pos, int interval) {
+        this.cancel(pos);
+        this.intervals[pos] = interval;
+        this.insert(pos, interval);
+    }
+
+    /**
+     * Stops refreshing the entry at the given position.
+     *
+     * @param pos the position of the entry
+     */
+    void cancel(int pos) {
+        if (this.scheduled.contains(pos)) {
+            this.buckets[this.bucketOf[pos]].remove(pos);
+            this.scheduled.remove(pos);
+        }
+    }
+
+    /**
+     * Advances the wheel by one update, and collects the entries which have to be refreshed.
+     *
+     * @param due the set to collect the positions into
+     */
+    void advance(@NotNull MammothSlotSet due) {
+        this.tick++;
+        MammothSlotSet bucket = this.buckets[this.tick & MASK];
+
+        for (int pos = bucket.next(0); pos >= 0; pos = bucket.next(pos + 1)) {
+            if (this.rounds[pos] > 0) {
+                this.rounds[pos]--;
+                continue;
+            }
+
+            due.add(pos);
+            bucket.remove(pos);
+            this.scheduled.remove(pos);
+            this.insert(pos, this.intervals[pos]);
+        }
+    }
+
+    private void insert(int pos, int delay) {
+        int bucket = (this.tick + delay) & MASK;
+
+        // The bucket is visited once per round before the entry is due
+        this.rounds[pos] = (delay - 1) / BUCKETS;
+        this.bucketOf[pos] = (byte) bucket;
+        this.buckets[bucket].add(pos);
+        this.scheduled.add(pos);
+    }
+}
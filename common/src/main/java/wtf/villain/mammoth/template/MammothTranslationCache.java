@@ -0,0 +1,141 @@
+package wtf.villain.mammoth.template;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * A bounded cache of {@link Component components} rendered for a {@link Locale locale}.
+ *
+ * <p>Translatable components are rendered by the {@link GlobalTranslator global translator} once per
+ * locale, and every template displaying the same component in the same locale receives the same rendered
+ * instance. As the rendered instances are shared, their wire form is shared by the platform providers
+ * caching encoded components as well.</p>
+ *
+ * <p>Rendered components expire after a fixed time, so translations registered later get picked up.</p>
+ *
+ * @see MammothTemplate#translationCache()
+ * @see MammothTemplate#locale()
+ */
+public final class MammothTranslationCache {
+    /**
+     * The default time after which a rendered component expires.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    /**
+     * The default maximum amount of rendered components.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    private static final MammothTranslationCache GLOBAL = new MammothTranslationCache();
+
+    private final MammothCache<Key, Component> cache;
+
+    /**
+     * Creates a new cache using the default expiry and size.
+     */
+    public MammothTranslationCache() {
+        this(DEFAULT_TTL, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param ttl         the time after which a rendered component expires
+     * @param maximumSize the maximum amount of rendered components
+     */
+    public MammothTranslationCache(@NotNull Duration ttl, int maximumSize) {
+        this.cache = new MammothCache<>(ttl, maximumSize);
+    }
+
+    /**
+     * Returns the cache shared by every template using it, which renders every component once per locale.
+     *
+     * @return the global cache
+     */
+    @NotNull
+    public static MammothTranslationCache global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Renders the given component for the given locale, using the cached result if present.
+     *
+     * @param component the component
+     * @param locale    the locale
+     * @return the rendered component
+     */
+    @NotNull
+    public Component render(@NotNull Component component, @NotNull Locale locale) {
+        return this.cache.get(new Key(component, locale), key -> GlobalTranslator.render(key.component, key.locale));
+    }
+
+    /**
+     * Removes every rendered component. The counters are kept.
+     */
+    public void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * Returns the amount of rendered components.
+     *
+     * @return the amount of rendered components
+     */
+    public int size() {
+        return this.cache.size();
+    }
+
+    /**
+     * Returns the amount of renders answered with a cached component.
+     *
+     * @return the amount of hits
+     */
+    public long hits() {
+        return this.cache.hits() + this.cache.coalesced();
+    }
+
+    /**
+     * Returns the amount of components which had to be rendered.
+     *
+     * @return the amount of misses
+     */
+    public long misses() {
+        return this.cache.misses();
+    }
+
+    /**
+     * Returns the amount of rendered components evicted from this cache.
+     *
+     * @return the amount of evictions
+     */
+    public long evictions() {
+        return this.cache.evictions();
+    }
+
+    /**
+     * Returns the share of renders answered with a cached component.
+     *
+     * @return the hit rate from {@code 0} to {@code 1}, or {@code 0} if nothing was rendered yet
+     */
+    public double hitRate() {
+        return this.cache.hitRate();
+    }
+
+    @Override
+    public String toString() {
+        return "MammothTranslationCache{" +
+            "size=" + this.size() +
+            ", hits=" + this.hits() +
+            ", misses=" + this.misses() +
+            ", evictions=" + this.evictions() +
+            '}';
+    }
+
+    private record Key(@NotNull Component component, @NotNull Locale locale) {
+    }
+}
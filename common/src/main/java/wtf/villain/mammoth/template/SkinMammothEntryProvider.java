@@ -0,0 +1,132 @@
+package wtf.villain.mammoth.template;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.utils.SkinResolver;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link MammothEntryProvider entry provider} displaying the skin of a player, resolved by a {@link SkinResolver}.
+ *
+ * <p>The text and ping are taken from another provider, and the skin is a {@link TextureProperty#QUESTION_MARK
+ * question mark} until the skin of the player got resolved. The resolution starts on the first update, and
+ * increases the {@link #revision() revision} of the provider once it completes, so the skin gets displayed on the
+ * next update. Failed resolutions are retried once {@link #RETRY_DELAY} elapsed.</p>
+ *
+ * <p>The provider is polled on every update, whatever the refresh interval of the content provider is, so the
+ * skin never waits for the next refresh of the content. Versioned content providers are only called when their
+ * revision changes, other content providers are called on every update.</p>
+ *
+ * @see SkinResolver
+ */
+public final class SkinMammothEntryProvider implements VersionedMammothEntryProvider {
+    /**
+     * The time after which a failed resolution is retried.
+     */
+    public static final Duration RETRY_DELAY = Duration.ofSeconds(10);
+
+    private final SkinResolver resolver;
+    private final UUID uuid;
+    private final MammothEntryProvider content;
+    private final AtomicBoolean resolving;
+
+    // Every template using the provider polls it, so the revision of unversioned content is bumped on every call
+    private final AtomicLong calls;
+
+    private volatile TextureProperty skin;
+    private volatile boolean resolved;
+    private volatile long retryAt;
+    private volatile long revision;
+
+    /**
+     * Creates a new provider.
+     *
+     * @param resolver the resolver
+     * @param uuid     the player whose skin gets displayed
+     * @param content  the provider of the text and ping
+     */
+    public SkinMammothEntryProvider(@NotNull SkinResolver resolver, @NotNull UUID uuid, @NotNull MammothEntryProvider content) {
+        this.resolver = resolver;
+        this.uuid = uuid;
+        this.content = content;
+        this.resolving = new AtomicBoolean();
+        this.calls = new AtomicLong();
+        this.skin = TextureProperty.QUESTION_MARK;
+        this.retryAt = System.nanoTime();
+    }
+
+    @Override
+    @NotNull
+    public Component text() {
+        return this.content.text();
+    }
+
+    @Override
+    @NotNull
+    public TextureProperty skin() {
+        return this.skin;
+    }
+
+    @Override
+    public int ping() {
+        return this.content.ping();
+    }
+
+    @Override
+    public int refreshInterval() {
+        // Templates only read the interval once, and the skin has to be displayed as soon as it's resolved
+        return 1;
+    }
+
+    @Override
+    public long revision() {
+        // The revision is read on every update, which is when the resolution starts
+        if (!this.resolved && System.nanoTime() - this.retryAt >= 0) {
+            this.resolve();
+        }
+
+        if (!(this.content instanceof VersionedMammothEntryProvider versioned)) {
+            // Unversioned content might change on every update
+            return this.calls.incrementAndGet();
+        }
+
+        // Both revisions only increase, so their sum changes whenever one of them does
+        return this.revision + versioned.revision();
+    }
+
+    private void resolve() {
+        // Resolutions are never started while another one is in flight
+        if (!this.resolving.compareAndSet(false, true)) {
+            return;
+        }
+
+        CompletableFuture<TextureProperty> future;
+
+        try {
+            future = this.resolver.resolve(this.uuid);
+        } catch (RuntimeException e) {
+            this.retryAt = System.nanoTime() + RETRY_DELAY.toNanos();
+            this.resolving.set(false);
+            return;
+        }
+
+        future.whenComplete((skin, throwable) -> {
+            // Only one resolution is in flight at a time, so the revision has a single writer
+            if (throwable == null && skin != null) {
+                this.skin = skin;
+                this.resolved = true;
+                this.revision++;
+            } else {
+                this.retryAt = System.nanoTime() + RETRY_DELAY.toNanos();
+            }
+
+            this.resolving.set(false);
+        });
+    }
+}
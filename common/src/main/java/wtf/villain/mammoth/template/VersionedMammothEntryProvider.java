@@ -0,0 +1,21 @@
+package wtf.villain.mammoth.template;
+
+/**
+ * An {@link MammothEntryProvider entry provider} exposing the revision of its content.
+ *
+ * <p>The revision must be increased every time the {@link #text() text}, {@link #skin() skin} or
+ * {@link #ping() ping} of the provider changes. While the revision doesn't change, the
+ * {@link MammothEntry entry} using the provider neither calls the provider, nor compares its values
+ * with the displayed ones.</p>
+ *
+ * @see MammothEntryProvider
+ * @see MammothEntry
+ */
+public interface VersionedMammothEntryProvider extends MammothEntryProvider {
+    /**
+     * Returns the revision of the content of this provider.
+     *
+     * @return the revision
+     */
+    long revision();
+}
@@ -0,0 +1,51 @@
+package wtf.villain.mammoth.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link SkinResolver resolver} reading the skins from a directory.
+ *
+ * @see SkinResolver#directory(Path, Executor)
+ */
+final class DirectorySkinResolver implements SkinResolver {
+    private final Path directory;
+    private final Executor executor;
+
+    DirectorySkinResolver(@NotNull Path directory, @NotNull Executor executor) {
+        this.directory = directory;
+        this.executor = executor;
+    }
+
+    @Override
+    @NotNull
+    public CompletableFuture<TextureProperty> resolve(@NotNull UUID uuid) {
+        return CompletableFuture.supplyAsync(() -> this.read(uuid), this.executor);
+    }
+
+    @NotNull
+    private TextureProperty read(@NotNull UUID uuid) {
+        List<String> lines;
+
+        try {
+            lines = Files.readAllLines(this.directory.resolve(uuid + ".skin"), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (lines.size() < 2) {
+            throw new IllegalStateException("the skin of " + uuid + " is missing its signature");
+        }
+
+        return TextureProperty.texture(lines.get(0).strip(), lines.get(1).strip());
+    }
+}
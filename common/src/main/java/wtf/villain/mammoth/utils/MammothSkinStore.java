@@ -0,0 +1,286 @@
+package wtf.villain.mammoth.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent store of {@link TextureProperty skins}, indexed by the uuid of their player.
+ *
+ * <p>The skins are appended to a memory-mapped file, so they survive restarts without being resolved again.
+ * Storing a skin for a player which already has one appends a new record, which replaces the previous
+ * one when the store gets opened. Only the offsets of the records are kept in memory, the skins are read
+ * from the mapped file and {@link TextureProperty#texture(String, String) interned} when they're requested.</p>
+ *
+ * <p>Every record consists of the length of the value, the length of the signature, the uuid, the time the skin was
+ * stored at, the value and the signature. Storing an equal skin again only updates the time of its record, so skins
+ * can be {@link #get(UUID, Duration) looked up by their age}. The length of the value is written last, and a record with an empty value marks the end of the
+ * store, so records which weren't written completely when the process crashed are ignored. The file is only
+ * forced to the disk when the store gets {@link #close() closed}, so a crash of the operating system or a power
+ * loss may lose or corrupt the records written since the store was opened.</p>
+ *
+ * <p>Stores are safe to use from multiple threads.</p>
+ */
+public final class MammothSkinStore implements AutoCloseable {
+    /**
+     * The size the store file gets mapped with initially, it doubles whenever the file is full.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    private static final int TIME_OFFSET = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final int HEADER_SIZE = TIME_OFFSET + Long.BYTES;
+
+    private final FileChannel channel;
+    private final Map<UUID, Integer> offsets;
+
+    private volatile MappedByteBuffer buffer;
+    private int position;
+    private boolean closed;
+
+    private MammothSkinStore(@NotNull FileChannel channel, int capacity) throws IOException {
+        this.channel = channel;
+        this.offsets = new ConcurrentHashMap<>();
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        this.position = this.index();
+    }
+
+    /**
+     * Opens the store at the given path, creating it if it doesn't exist.
+     *
+     * @param path the path of the store file
+     * @return the store
+     * @throws IOException if the file can't be opened or mapped
+     */
+    @NotNull
+    public static MammothSkinStore open(@NotNull Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens the store at the given path, creating it if it doesn't exist.
+     *
+     * @param path     the path of the store file
+     * @param capacity the size the file gets mapped with initially
+     * @return the store
+     * @throws IOException if the file can't be opened or mapped
+     */
+    @NotNull
+    public static MammothSkinStore open(@NotNull Path path, int capacity) throws IOException {
+        if (capacity < HEADER_SIZE) {
+            throw new IllegalArgumentException("capacity must fit a record");
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            return new MammothSkinStore(channel, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the skin stored for the given player.
+     *
+     * @param uuid the player
+     * @return the skin, or {@code null} if no skin is stored for the player
+     */
+    @Nullable
+    public TextureProperty get(@NotNull UUID uuid) {
+        Integer offset = this.offsets.get(uuid);
+
+        if (offset == null) {
+            return null;
+        }
+
+        // The offset was published after the record was written, and remapping keeps every offset
+        MappedByteBuffer buffer = this.buffer;
+        int valueLength = buffer.getInt(offset);
+        int signatureLength = buffer.getInt(offset + Integer.BYTES);
+
+        return TextureProperty.texture(
+            read(buffer, offset + HEADER_SIZE, valueLength),
+            read(buffer, offset + HEADER_SIZE + valueLength, signatureLength)
+        );
+    }
+
+    /**
+     * Returns the skin stored for the given player, if it was stored within the given duration.
+     *
+     * @param uuid   the player
+     * @param maxAge the maximum age of the skin
+     * @return the skin, or {@code null} if no skin is stored for the player or the stored skin is older
+     */
+    @Nullable
+    public TextureProperty get(@NotNull UUID uuid, @NotNull Duration maxAge) {
+        Integer offset = this.offsets.get(uuid);
+
+        if (offset == null || System.currentTimeMillis() - this.buffer.getLong(offset + TIME_OFFSET) > maxAge.toMillis()) {
+            return null;
+        }
+
+        return get(uuid);
+    }
+
+    /**
+     * Stores the skin of the given player. Only the time of the record is updated if the player already has an equal
+     * skin.
+     *
+     * @param uuid the player
+     * @param skin the skin
+     * @throws UncheckedIOException  if the file can't be grown
+     * @throws IllegalStateException if the store is closed
+     */
+    public synchronized void put(@NotNull UUID uuid, @NotNull TextureProperty skin) {
+        if (this.closed) {
+            throw new IllegalStateException("the skin store is closed");
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (skin.equals(get(uuid))) {
+            this.buffer.putLong(this.offsets.get(uuid) + TIME_OFFSET, now);
+            return;
+        }
+
+        byte[] value = skin.value().getBytes(StandardCharsets.UTF_8);
+        byte[] signature = skin.signature().getBytes(StandardCharsets.UTF_8);
+
+        if (value.length == 0) {
+            throw new IllegalArgumentException("the value of the skin must not be empty");
+        }
+
+        int offset = this.position;
+        int size = HEADER_SIZE + value.length + signature.length;
+        MappedByteBuffer buffer = this.ensureCapacity(offset + size + Integer.BYTES);
+
+        buffer.putInt(offset + Integer.BYTES, signature.length);
+        buffer.putLong(offset + 2 * Integer.BYTES, uuid.getMostSignificantBits());
+        buffer.putLong(offset + 2 * Integer.BYTES + Long.BYTES, uuid.getLeastSignificantBits());
+        buffer.putLong(offset + TIME_OFFSET, now);
+        buffer.put(offset + HEADER_SIZE, value);
+        buffer.put(offset + HEADER_SIZE + value.length, signature);
+
+        // A record which wasn't written completely before a crash might follow
+        buffer.putInt(offset + size, 0);
+
+        // The record only becomes valid once its first field is written
+        buffer.putInt(offset, value.length);
+
+        this.position = offset + size;
+        this.offsets.put(uuid, offset);
+    }
+
+    /**
+     * Marks the skin stored for the given player as outdated, so it's no longer returned when
+     * {@link #get(UUID, Duration) looked up by its age}. The skin itself is kept until a new one is stored.
+     *
+     * @param uuid the player
+     * @throws IllegalStateException if the store is closed
+     */
+    public synchronized void expire(@NotNull UUID uuid) {
+        if (this.closed) {
+            throw new IllegalStateException("the skin store is closed");
+        }
+
+        Integer offset = this.offsets.get(uuid);
+
+        if (offset != null) {
+            this.buffer.putLong(offset + TIME_OFFSET, 0);
+        }
+    }
+
+    /**
+     * Returns the amount of players with a stored skin.
+     *
+     * @return the amount of players
+     */
+    public int size() {
+        return this.offsets.size();
+    }
+
+    /**
+     * Writes the stored skins to the disk, and closes the store. Stored skins can still be read afterwards.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.buffer.force();
+        this.channel.close();
+    }
+
+    private int index() {
+        MappedByteBuffer buffer = this.buffer;
+        int offset = 0;
+
+        while (offset + HEADER_SIZE <= buffer.limit()) {
+            int valueLength = buffer.getInt(offset);
+            int signatureLength = buffer.getInt(offset + Integer.BYTES);
+
+            if (valueLength <= 0 || signatureLength < 0 || (long) offset + HEADER_SIZE + valueLength + signatureLength > buffer.limit()) {
+                break;
+            }
+
+            UUID uuid = new UUID(buffer.getLong(offset + 2 * Integer.BYTES), buffer.getLong(offset + 2 * Integer.BYTES + Long.BYTES));
+
+            // Later records replace the earlier ones
+            this.offsets.put(uuid, offset);
+            offset += HEADER_SIZE + valueLength + signatureLength;
+        }
+
+        return offset;
+    }
+
+    @NotNull
+    private MappedByteBuffer ensureCapacity(int required) {
+        MappedByteBuffer buffer = this.buffer;
+
+        if (required <= buffer.limit()) {
+            return buffer;
+        }
+
+        long capacity = buffer.limit();
+
+        while (capacity < required) {
+            capacity *= 2;
+        }
+
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("the skin store is full");
+        }
+
+        try {
+            buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.buffer = buffer;
+        return buffer;
+    }
+
+    @NotNull
+    private static String read(@NotNull MappedByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
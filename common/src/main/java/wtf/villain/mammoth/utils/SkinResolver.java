@@ -0,0 +1,44 @@
+package wtf.villain.mammoth.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Resolves the {@link TextureProperty skins} of players.
+ *
+ * <p>Implementations look up the skins (e.g. using the Mojang API, or a proxy) and must never block the calling
+ * thread. Resolvers are usually cached by a {@link wtf.villain.mammoth.template.MammothSkinResolver}, so every
+ * skin is only looked up once, and displayed using a {@link wtf.villain.mammoth.template.SkinMammothEntryProvider}.</p>
+ *
+ * @see wtf.villain.mammoth.template.MammothSkinResolver
+ */
+@FunctionalInterface
+public interface SkinResolver {
+    /**
+     * Starts resolving the skin of the given player.
+     *
+     * @param uuid the player
+     * @return a future completing with the skin, or completing exceptionally if the skin can't be resolved
+     */
+    @NotNull
+    CompletableFuture<TextureProperty> resolve(@NotNull UUID uuid);
+
+    /**
+     * Returns a resolver reading the skins from a directory, mostly useful for testing.
+     *
+     * <p>The skin of a player is read from the file named after the uuid of the player with the {@code .skin}
+     * extension, holding the value of the skin on its first line, and the signature on its second line.</p>
+     *
+     * @param directory the directory
+     * @param executor  the executor reading the files
+     * @return a new resolver
+     */
+    @NotNull
+    static SkinResolver directory(@NotNull Path directory, @NotNull Executor executor) {
+        return new DirectorySkinResolver(directory, executor);
+    }
+}
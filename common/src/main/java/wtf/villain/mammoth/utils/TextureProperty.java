@@ -4,6 +4,12 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * Represents a property holding textures.
+ *
+ * <p>Texture properties created by {@link #texture(String, String)} are interned and compared by their value and
+ * signature, so creating the same texture twice doesn't count as a change of the skin. They are never equal to
+ * texture properties implemented elsewhere.</p>
+ *
+ * @see MammothSkinStore
  */
 public interface TextureProperty {
     /**
@@ -32,19 +38,16 @@ public interface TextureProperty {
     String signature();
 
     /**
-     * Creates a new {@link TextureProperty texture property}.
+     * Returns a {@link TextureProperty texture property} with the given value and signature.
+     *
+     * <p>If an equal texture property is still in use, that instance is returned.</p>
      *
      * @param value     the value
      * @param signature the signature
-     * @return a new {@link TextureProperty texture property}
+     * @return the {@link TextureProperty texture property}
      */
     @NotNull
     static TextureProperty texture(@NotNull String value, @NotNull String signature) {
-        // @formatter:off
-        return new TextureProperty() {
-            @Override @NotNull public String value() { return value; }
-            @Override @NotNull public String signature() { return signature; }
-        };
-        // @formatter:on
+        return TextureRegistry.intern(value, signature);
     }
 }
\ No newline at end of file
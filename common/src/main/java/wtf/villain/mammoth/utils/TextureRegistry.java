@@ -0,0 +1,105 @@
+package wtf.villain.mammoth.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Interns the {@link TextureProperty texture properties} created by {@link TextureProperty#texture(String, String)}.
+ *
+ * <p>Equal textures created while a previous instance is still reachable return the previous instance, so
+ * comparing textures usually ends at the identity check. Textures are only weakly referenced by the registry,
+ * and are collected once they aren't used anymore.</p>
+ */
+final class TextureRegistry {
+    // Lookups are striped, so templates creating textures on multiple threads rarely contend
+    private static final int STRIPES = 16;
+
+    private static final Stripe[] STRIPED_TEXTURES = new Stripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            STRIPED_TEXTURES[i] = new Stripe();
+        }
+    }
+
+    private TextureRegistry() {
+    }
+
+    /**
+     * Returns the interned texture with the given value and signature.
+     *
+     * @param value     the value
+     * @param signature the signature
+     * @return the interned texture
+     */
+    @NotNull
+    static TextureProperty intern(@NotNull String value, @NotNull String signature) {
+        InternedTexture texture = new InternedTexture(value, signature);
+        int hash = texture.hashCode();
+        Map<InternedTexture, WeakReference<InternedTexture>> textures = STRIPED_TEXTURES[(hash ^ (hash >>> 16)) & (STRIPES - 1)].textures;
+
+        synchronized (textures) {
+            WeakReference<InternedTexture> reference = textures.get(texture);
+            InternedTexture interned = reference != null ? reference.get() : null;
+
+            if (interned == null) {
+                textures.put(texture, new WeakReference<>(texture));
+                interned = texture;
+            }
+
+            return interned;
+        }
+    }
+
+    private static final class Stripe {
+        private final Map<InternedTexture, WeakReference<InternedTexture>> textures = new WeakHashMap<>();
+    }
+
+    private static final class InternedTexture implements TextureProperty {
+        private final String value;
+        private final String signature;
+        private final int hash;
+
+        private InternedTexture(@NotNull String value, @NotNull String signature) {
+            this.value = value;
+            this.signature = signature;
+            this.hash = 31 * value.hashCode() + signature.hashCode();
+        }
+
+        @Override
+        @NotNull
+        public String value() {
+            return this.value;
+        }
+
+        @Override
+        @NotNull
+        public String signature() {
+            return this.signature;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            // Distinct interned textures are only equal to the keys used to look them up, other implementations
+            // compare by identity, so the equality stays symmetric
+            return o instanceof InternedTexture other && this.hash == other.hash && this.value.equals(other.value) && this.signature.equals(other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public String toString() {
+            return "TextureProperty{value=" + this.value + ", signature=" + this.signature + "}";
+        }
+    }
+}
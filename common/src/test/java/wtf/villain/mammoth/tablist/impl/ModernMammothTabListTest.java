@@ -0,0 +1,149 @@
+package wtf.villain.mammoth.tablist.impl;
+
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import wtf.villain.mammoth.platform.GameFeature;
+import wtf.villain.mammoth.platform.PlatformProvider;
+import wtf.villain.mammoth.platform.UpdateAction;
+import wtf.villain.mammoth.template.MammothEntry;
+import wtf.villain.mammoth.template.MammothSlotSet;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static net.kyori.adventure.text.Component.text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModernMammothTabListTest {
+    private static final int[] LAYOUT = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 70, 75, 78};
+
+    @Test
+    void sendsEverythingWithoutBudget() {
+        RecordingProvider provider = new RecordingProvider();
+        ChangingTemplate template = new ChangingTemplate();
+        ModernMammothTabList tabList = new ModernMammothTabList(UUID.randomUUID(), provider, template);
+
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 70, 75, 78), update(tabList, provider));
+        assertEquals(0, tabList.pending());
+
+        template.change(3, 75);
+        assertEquals(Set.of(3, 75), update(tabList, provider));
+    }
+
+    @Test
+    void sendsAtMostTheBudgetPerUpdate() {
+        RecordingProvider provider = new RecordingProvider();
+        ModernMammothTabList tabList = new ModernMammothTabList(UUID.randomUUID(), provider, new ChangingTemplate(), 4);
+
+        assertEquals(Set.of(0, 1, 2, 3), update(tabList, provider));
+        assertEquals(LAYOUT.length - 4, tabList.pending());
+        assertEquals(Set.of(4, 5, 6, 7), update(tabList, provider));
+        assertEquals(Set.of(8, 9, 70, 75), update(tabList, provider));
+        assertEquals(Set.of(78), update(tabList, provider));
+        assertEquals(0, tabList.pending());
+    }
+
+    @Test
+    void resumesAfterTheLastSentEntryOnceWrapped() {
+        RecordingProvider provider = new RecordingProvider();
+        ChangingTemplate template = new ChangingTemplate();
+        ModernMammothTabList tabList = new ModernMammothTabList(UUID.randomUUID(), provider, template, 4);
+
+        // Drains the initial entries, the last one being 78
+        for (int i = 0; i < 4; i++) {
+            update(tabList, provider);
+        }
+
+        template.change(70);
+        assertEquals(Set.of(70), update(tabList, provider));
+
+        // Wraps around after 75, so the next update must resume after 2
+        template.change(75, 0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertEquals(Set.of(75, 0, 1, 2), update(tabList, provider));
+
+        template.change(78);
+        assertEquals(Set.of(3, 4, 5, 6), update(tabList, provider));
+        assertEquals(Set.of(7, 8, 9, 78), update(tabList, provider));
+        assertEquals(0, tabList.pending());
+    }
+
+    private static Set<Integer> update(ModernMammothTabList tabList, RecordingProvider provider) {
+        tabList.update();
+
+        Set<Integer> sent = new TreeSet<>(provider.sent);
+        provider.sent.clear();
+        return sent;
+    }
+
+    private static final class ChangingTemplate extends MammothTemplate {
+        private final List<Integer> changes = new ArrayList<>();
+        private int revision;
+
+        void change(int... positions) {
+            this.revision++;
+
+            for (int pos : positions) {
+                this.changes.add(pos);
+            }
+        }
+
+        @Override
+        public void update() {
+            for (int pos : this.changes) {
+                set(pos, text("Revision " + this.revision));
+            }
+
+            this.changes.clear();
+        }
+
+        @Override
+        public boolean updateEntryStates() {
+            return false;
+        }
+
+        @Override
+        public @NotNull MammothSlotSet layout() {
+            MammothSlotSet layout = new MammothSlotSet();
+
+            for (int pos : LAYOUT) {
+                layout.add(pos);
+            }
+
+            return layout;
+        }
+    }
+
+    private static final class RecordingProvider implements PlatformProvider {
+        private final List<Integer> sent = new ArrayList<>();
+
+        @Override
+        public @NotNull Set<GameFeature> supportedFeatures(@NotNull UUID uuid) {
+            return EnumSet.allOf(GameFeature.class);
+        }
+
+        @Override
+        public @NotNull Object bakeEntry(@NotNull MammothEntry entry, @NotNull Set<GameFeature> gameFeatures) {
+            return entry.index();
+        }
+
+        @Override
+        public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull UpdateAction action, @NotNull Collection<Object> bakedEntries) {
+            for (Object entry : bakedEntries) {
+                this.sent.add((Integer) entry);
+            }
+        }
+
+        @Override
+        public void sendHeaderAndFooter(@NotNull UUID uuid, @Nullable Component header, @Nullable Component footer) {
+            // not recorded
+        }
+    }
+}
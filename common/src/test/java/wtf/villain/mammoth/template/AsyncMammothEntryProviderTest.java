@@ -0,0 +1,84 @@
+package wtf.villain.mammoth.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.kyori.adventure.text.Component.text;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static wtf.villain.mammoth.template.MammothEntryProvider.entryProvider;
+
+class AsyncMammothEntryProviderTest {
+    private static final MammothEntryProvider PLACEHOLDER = entryProvider(text("Loading..."));
+
+    @Test
+    void displaysTheLoadedContent() {
+        MammothEntryProvider loaded = entryProvider(text("Loaded"));
+        AsyncMammothEntryProvider provider = new AsyncMammothEntryProvider(() -> CompletableFuture.completedFuture(loaded), PLACEHOLDER, Duration.ofSeconds(1), Duration.ZERO);
+
+        assertEquals(PLACEHOLDER.text(), provider.text());
+        assertEquals(1, provider.revision());
+        assertEquals(loaded.text(), provider.text());
+    }
+
+    @Test
+    void loadsOncePerIntervalWhateverTheAmountOfReads() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncMammothEntryProvider provider = new AsyncMammothEntryProvider(() -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(PLACEHOLDER);
+        }, PLACEHOLDER, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        // Templates sharing the provider read its revision on every update
+        for (int i = 0; i < 100; i++) {
+            provider.revision();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void timeoutsNeverCompleteTheFutureOfTheLoader() throws InterruptedException {
+        MammothCache<String, MammothEntryProvider> cache = new MammothCache<>(Duration.ofMinutes(1), 16);
+        CompletableFuture<MammothEntryProvider> load = new CompletableFuture<>();
+        AsyncMammothEntryProvider provider = new AsyncMammothEntryProvider(() -> cache.getAsync("a", key -> load), PLACEHOLDER, Duration.ofMillis(10), Duration.ZERO);
+
+        provider.revision();
+
+        for (int i = 0; i < 100 && provider.loading(); i++) {
+            Thread.sleep(10);
+        }
+
+        assertFalse(provider.loading());
+
+        // The load completes after the timeout, and the cache still serves it
+        MammothEntryProvider loaded = entryProvider(text("Loaded"));
+        load.complete(loaded);
+
+        assertEquals(loaded, cache.getAsync("a", key -> CompletableFuture.failedFuture(new AssertionError())).join());
+    }
+
+    @Test
+    void cancelsBlockingLookupsWhichTimedOut() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AsyncMammothEntryProvider provider = AsyncMammothEntryProvider.blocking(() -> {
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+
+            return PLACEHOLDER;
+        }, PLACEHOLDER, Duration.ofMillis(10), Duration.ZERO);
+
+        provider.revision();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,129 @@
+package wtf.villain.mammoth.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MammothCacheTest {
+    @Test
+    void loadsEveryKeyOnce() {
+        MammothCache<String, String> cache = new MammothCache<>(Duration.ofMinutes(1), 16);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("a!", cache.get("a", key -> {
+            loads.incrementAndGet();
+            return key + "!";
+        }));
+        assertEquals("a!", cache.get("a", key -> {
+            loads.incrementAndGet();
+            return key + "?";
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void reloadsExpiredValues() throws InterruptedException {
+        MammothCache<String, Integer> cache = new MammothCache<>(Duration.ofMillis(20), 16);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> loads.incrementAndGet());
+        Thread.sleep(40);
+
+        assertEquals(2, cache.get("a", key -> loads.incrementAndGet()));
+    }
+
+    @Test
+    void coalescesConcurrentLoads() {
+        MammothCache<String, String> cache = new MammothCache<>(Duration.ofMinutes(1), 16);
+        CompletableFuture<String> load = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> first = cache.getAsync("a", key -> {
+            loads.incrementAndGet();
+            return load;
+        });
+        CompletableFuture<String> second = cache.getAsync("a", key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("b");
+        });
+
+        load.complete("a");
+
+        assertEquals("a", first.join());
+        assertEquals("a", second.join());
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.coalesced());
+    }
+
+    @Test
+    void neverCachesFailures() {
+        MammothCache<String, String> cache = new MammothCache<>(Duration.ofMinutes(1), 16);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+            throw new IllegalStateException();
+        }));
+        assertThrows(AssertionError.class, () -> cache.get("a", key -> {
+            throw new AssertionError();
+        }));
+
+        assertEquals("a", cache.get("a", key -> key));
+    }
+
+    @Test
+    void neverCachesAsynchronousFailures() {
+        MammothCache<String, String> cache = new MammothCache<>(Duration.ofMinutes(1), 16);
+
+        CompletableFuture<String> failed = cache.getAsync("a", key -> CompletableFuture.failedFuture(new IllegalStateException()));
+        assertThrows(CompletionException.class, failed::join);
+
+        assertEquals("a", cache.getAsync("a", key -> CompletableFuture.completedFuture(key)).join());
+    }
+
+    @Test
+    void callersCantCompleteTheCachedValue() {
+        MammothCache<String, String> cache = new MammothCache<>(Duration.ofMinutes(1), 16);
+        CompletableFuture<String> load = new CompletableFuture<>();
+
+        CompletableFuture<String> future = cache.getAsync("a", key -> load);
+        future.completeExceptionally(new IllegalStateException("timed out"));
+        load.complete("a");
+
+        assertEquals("a", cache.getAsync("a", key -> CompletableFuture.completedFuture("b")).join());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedValues() throws InterruptedException {
+        MammothCache<Integer, Integer> cache = new MammothCache<>(Duration.ofMinutes(1), 100);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(i, key -> key);
+        }
+
+        // Uses within the same millisecond are equally recent
+        Thread.sleep(5);
+
+        for (int i = 0; i < 50; i++) {
+            cache.get(i, key -> key);
+        }
+
+        cache.get(100, key -> key);
+
+        assertEquals(75, cache.size());
+        assertEquals(26, cache.evictions());
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, cache.get(i, key -> {
+                throw new AssertionError("recently used value " + key + " was evicted");
+            }));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package wtf.villain.mammoth.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MammothPingModeTest {
+    @Test
+    void mapsPingsToTheVanillaBars() {
+        assertEquals(0, MammothPingMode.bar(-1));
+        assertEquals(5, MammothPingMode.bar(0));
+        assertEquals(5, MammothPingMode.bar(149));
+        assertEquals(4, MammothPingMode.bar(150));
+        assertEquals(3, MammothPingMode.bar(300));
+        assertEquals(2, MammothPingMode.bar(600));
+        assertEquals(1, MammothPingMode.bar(1000));
+    }
+
+    @Test
+    void exactModeComparesThePings() {
+        assertTrue(MammothPingMode.EXACT.changed(20, 21));
+        assertFalse(MammothPingMode.EXACT.changed(20, 20));
+    }
+
+    @Test
+    void barsModeOnlyComparesTheBars() {
+        MammothPingMode mode = MammothPingMode.bars();
+
+        assertFalse(mode.changed(20, 140));
+        assertTrue(mode.changed(140, 160));
+        assertTrue(mode.changed(20, -1));
+    }
+
+    @Test
+    void hysteresisKeepsTheBarAroundItsBound() {
+        MammothPingMode mode = MammothPingMode.bars(20);
+
+        // Worse bars need the ping to be past the bound by the hysteresis
+        assertFalse(mode.changed(140, 160));
+        assertTrue(mode.changed(140, 170));
+
+        // Better bars need the ping to be below the bound by the hysteresis
+        assertFalse(mode.changed(160, 140));
+        assertTrue(mode.changed(160, 129));
+
+        // Losing the connection is always displayed
+        assertTrue(mode.changed(140, -1));
+    }
+
+    @Test
+    void rejectsNegativeHysteresis() {
+        assertThrows(IllegalArgumentException.class, () -> MammothPingMode.bars(-1));
+    }
+}
@@ -0,0 +1,90 @@
+package wtf.villain.mammoth.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MammothSlotSetTest {
+    @Test
+    void addsAndRemovesOnBothSidesOfTheWordBoundary() {
+        MammothSlotSet slots = new MammothSlotSet();
+
+        for (int pos : new int[]{0, 63, 64, MammothTemplate.TEMPLATE_MAX_SIZE - 1}) {
+            slots.add(pos);
+            assertTrue(slots.contains(pos));
+        }
+
+        assertEquals(4, slots.size());
+
+        slots.remove(63);
+        slots.remove(64);
+
+        assertFalse(slots.contains(63));
+        assertFalse(slots.contains(64));
+        assertEquals(2, slots.size());
+    }
+
+    @Test
+    void iteratesInAscendingOrder() {
+        MammothSlotSet slots = new MammothSlotSet();
+        slots.add(70);
+        slots.add(3);
+        slots.add(64);
+        slots.add(63);
+
+        assertEquals(List.of(3, 63, 64, 70), positions(slots));
+        assertEquals(64, slots.next(64));
+        assertEquals(70, slots.next(65));
+        assertEquals(-1, slots.next(71));
+        assertEquals(-1, slots.next(MammothTemplate.TEMPLATE_MAX_SIZE));
+    }
+
+    @Test
+    void fillsOnlyTheTemplate() {
+        MammothSlotSet slots = new MammothSlotSet();
+        slots.fill();
+
+        assertEquals(MammothTemplate.TEMPLATE_MAX_SIZE, slots.size());
+        assertEquals(MammothTemplate.TEMPLATE_MAX_SIZE - 1, slots.next(MammothTemplate.TEMPLATE_MAX_SIZE - 1));
+        assertEquals(-1, slots.next(MammothTemplate.TEMPLATE_MAX_SIZE));
+
+        slots.clear();
+        assertTrue(slots.isEmpty());
+    }
+
+    @Test
+    void combinesSets() {
+        MammothSlotSet slots = new MammothSlotSet();
+        slots.add(1);
+        slots.add(65);
+
+        MammothSlotSet other = new MammothSlotSet();
+        other.add(65);
+        other.add(79);
+
+        MammothSlotSet union = new MammothSlotSet();
+        union.set(slots);
+        union.addAll(other);
+        assertEquals(List.of(1, 65, 79), positions(union));
+
+        MammothSlotSet intersection = new MammothSlotSet();
+        intersection.set(slots);
+        intersection.retainAll(other);
+        assertEquals(List.of(65), positions(intersection));
+    }
+
+    private static List<Integer> positions(MammothSlotSet slots) {
+        List<Integer> positions = new ArrayList<>();
+
+        for (int pos = slots.next(0); pos >= 0; pos = slots.next(pos + 1)) {
+            positions.add(pos);
+        }
+
+        return positions;
+    }
+}
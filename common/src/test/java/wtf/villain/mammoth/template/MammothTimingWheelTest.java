@@ -0,0 +1,60 @@
+package wtf.villain.mammoth.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MammothTimingWheelTest {
+    @Test
+    void refreshesEveryInterval() {
+        MammothTimingWheel wheel = new MammothTimingWheel();
+        wheel.schedule(5, 3);
+
+        assertEquals(List.of(3, 6, 9, 12), dueTicks(wheel, 5, 12));
+    }
+
+    @Test
+    void waitsForMultipleRoundsOnLongIntervals() {
+        MammothTimingWheel wheel = new MammothTimingWheel();
+        wheel.schedule(70, 40);
+
+        assertEquals(List.of(40, 80, 120), dueTicks(wheel, 70, 120));
+    }
+
+    @Test
+    void cancelledEntriesAreNeverDue() {
+        MammothTimingWheel wheel = new MammothTimingWheel();
+        wheel.schedule(1, 2);
+        wheel.cancel(1);
+
+        assertEquals(List.of(), dueTicks(wheel, 1, 10));
+    }
+
+    @Test
+    void reschedulingReplacesTheInterval() {
+        MammothTimingWheel wheel = new MammothTimingWheel();
+        wheel.schedule(1, 2);
+        wheel.schedule(1, 5);
+
+        assertEquals(List.of(5, 10), dueTicks(wheel, 1, 10));
+    }
+
+    private static List<Integer> dueTicks(MammothTimingWheel wheel, int pos, int ticks) {
+        List<Integer> due = new ArrayList<>();
+        MammothSlotSet slots = new MammothSlotSet();
+
+        for (int tick = 1; tick <= ticks; tick++) {
+            slots.clear();
+            wheel.advance(slots);
+
+            if (slots.contains(pos)) {
+                due.add(tick);
+            }
+        }
+
+        return due;
+    }
+}
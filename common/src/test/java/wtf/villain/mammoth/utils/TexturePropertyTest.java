@@ -0,0 +1,39 @@
+package wtf.villain.mammoth.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TexturePropertyTest {
+    @Test
+    void internsEqualTextures() {
+        TextureProperty texture = TextureProperty.texture("value", "signature");
+
+        assertSame(texture, TextureProperty.texture(new String("value"), new String("signature")));
+        assertNotEquals(texture, TextureProperty.texture("value", "other"));
+        assertNotEquals(texture, TextureProperty.texture("other", "signature"));
+    }
+
+    @Test
+    void isNeverEqualToOtherImplementations() {
+        TextureProperty texture = TextureProperty.texture("value", "signature");
+        TextureProperty other = new TextureProperty() {
+            @Override
+            public @NotNull String value() {
+                return "value";
+            }
+
+            @Override
+            public @NotNull String signature() {
+                return "signature";
+            }
+        };
+
+        assertNotEquals(texture, other);
+        assertNotEquals(other, texture);
+        assertEquals(texture, texture);
+    }
+}
@@ -9,6 +9,10 @@ dependencies {
     implementation(project(":mammoth-common"))
     implementation(libs.bundles.adventure.serializers)
     implementation(libs.packetevents)
+
+    // Provided by the server
+    compileOnly(libs.netty.buffer)
+    compileOnly(libs.netty.transport)
 }
 
 tasks.withType<Javadoc> {
@@ -0,0 +1,66 @@
+package wtf.villain.mammoth.platform.packetevents;
+
+import com.github.retrooper.packetevents.protocol.player.TextureProperty;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import org.jetbrains.annotations.NotNull;
+import wtf.villain.mammoth.template.MammothEntry;
+import wtf.villain.mammoth.template.MammothTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the {@link UserProfile profiles} of the entries, keyed on their position and skin.
+ *
+ * <p>The profile of an entry only depends on its position and skin, so it can be shared between
+ * every player, and reused while only the text or the ping of the entry changes.</p>
+ */
+final class MammothBakeCache {
+    /**
+     * The maximum amount of profiles cached per position. The cache of a position gets
+     * cleared once it's full, which only happens if the skins are not reused.
+     */
+    private static final int MAX_PROFILES_PER_POSITION = 256;
+
+    private final List<Map<wtf.villain.mammoth.utils.TextureProperty, UserProfile>> profiles;
+
+    MammothBakeCache() {
+        this.profiles = new ArrayList<>(MammothTemplate.TEMPLATE_MAX_SIZE);
+
+        for (int i = 0; i < MammothTemplate.TEMPLATE_MAX_SIZE; i++) {
+            this.profiles.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the profile of the given entry, using its current skin.
+     *
+     * @param entry the entry
+     * @return the profile
+     */
+    @NotNull
+    UserProfile profile(@NotNull MammothEntry entry) {
+        Map<wtf.villain.mammoth.utils.TextureProperty, UserProfile> profiles = this.profiles.get(entry.index());
+        wtf.villain.mammoth.utils.TextureProperty skin = entry.currentSkin();
+        UserProfile profile = profiles.get(skin);
+
+        if (profile == null) {
+            if (profiles.size() >= MAX_PROFILES_PER_POSITION) {
+                profiles.clear();
+            }
+
+            profile = new UserProfile(entry.uuid(), entry.name());
+            profile.setTextureProperties(List.of(new TextureProperty("textures", skin.value(), skin.signature())));
+
+            UserProfile previous = profiles.putIfAbsent(skin, profile);
+
+            if (previous != null) {
+                profile = previous;
+            }
+        }
+
+        return profile;
+    }
+}
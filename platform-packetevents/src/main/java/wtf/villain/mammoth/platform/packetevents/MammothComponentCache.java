@@ -0,0 +1,203 @@
+package wtf.villain.mammoth.platform.packetevents;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A bounded cache of {@link Component components} in their encoded wire form.
+ *
+ * <p>The same component is often sent to hundreds of players on the same tick, so it's
+ * serialized by PacketEvents only once (as JSON or NBT, depending on the server version),
+ * and the encoded bytes are copied into every other packet containing it.</p>
+ *
+ * <p>Once the cache is full, the least recently used quarter of it gets evicted.</p>
+ */
+public final class MammothComponentCache {
+    /**
+     * The default maximum amount of cached components.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    // Entries used within the same interval are considered equally recent
+    private static final long TOUCH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int maximumSize;
+    private final Map<Component, Encoded> entries;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Creates a new component cache.
+     *
+     * @param maximumSize the maximum amount of cached components
+     */
+    public MammothComponentCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive");
+        }
+
+        this.maximumSize = maximumSize;
+        this.entries = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    /**
+     * Writes the given component into the buffer of the given packet, using the cached wire form if present.
+     *
+     * @param wrapper   the packet
+     * @param component the component
+     * @param encoder   the encoder writing the component into the packet on cache misses
+     */
+    void write(@NotNull PacketWrapper<?> wrapper, @NotNull Component component, @NotNull Consumer<Component> encoder) {
+        Encoded encoded = this.entries.get(component);
+
+        if (encoded != null) {
+            long now = System.nanoTime();
+
+            // Hot entries only record their use once per interval, so hits never contend on a shared counter
+            if (now - encoded.lastUse >= TOUCH_INTERVAL_NANOS) {
+                encoded.lastUse = now;
+            }
+
+            this.hits.increment();
+            wrapper.writeBytes(encoded.bytes);
+            return;
+        }
+
+        this.misses.increment();
+
+        int start = ByteBufHelper.writerIndex(wrapper.buffer);
+        encoder.accept(component);
+
+        byte[] bytes = new byte[ByteBufHelper.writerIndex(wrapper.buffer) - start];
+        ByteBufHelper.getBytes(wrapper.buffer, start, bytes);
+
+        this.entries.put(component, new Encoded(bytes, System.nanoTime()));
+
+        if (this.entries.size() > this.maximumSize) {
+            this.evict();
+        }
+    }
+
+    private synchronized void evict() {
+        int size = this.entries.size();
+
+        if (size <= this.maximumSize) {
+            return;
+        }
+
+        List<Map.Entry<Component, Encoded>> entries = new ArrayList<>(this.entries.entrySet());
+        long[] uses = new long[entries.size()];
+        Integer[] order = new Integer[entries.size()];
+
+        // The last uses are copied first, as hits keep updating them while sorting
+        for (int i = 0; i < uses.length; i++) {
+            uses[i] = entries.get(i).getValue().lastUse;
+            order[i] = i;
+        }
+
+        Arrays.sort(order, Comparator.comparingLong(i -> uses[i]));
+
+        // Evicting a quarter at once keeps the amortized cost of the eviction low, the entries are evicted by rank
+        int evicted = Math.min(order.length, size - this.maximumSize + this.maximumSize / 4);
+
+        for (int i = 0; i < evicted; i++) {
+            Map.Entry<Component, Encoded> entry = entries.get(order[i]);
+
+            if (this.entries.remove(entry.getKey(), entry.getValue())) {
+                this.evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached component. The counters are kept.
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Returns the amount of cached components.
+     *
+     * @return the amount of cached components
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the maximum amount of cached components.
+     *
+     * @return the maximum amount of cached components
+     */
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns the amount of components written using their cached wire form.
+     *
+     * @return the amount of hits
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the amount of components which had to be serialized.
+     *
+     * @return the amount of misses
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the amount of components evicted from this cache.
+     *
+     * @return the amount of evictions
+     */
+    public long evictions() {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "MammothComponentCache{" +
+            "size=" + this.size() +
+            ", maximumSize=" + this.maximumSize +
+            ", hits=" + this.hits() +
+            ", misses=" + this.misses() +
+            ", evictions=" + this.evictions() +
+            '}';
+    }
+
+    private static final class Encoded {
+        private final byte[] bytes;
+
+        // Races between the players using the same component are harmless
+        private long lastUse;
+
+        private Encoded(byte[] bytes, long lastUse) {
+            this.bytes = bytes;
+            this.lastUse = lastUse;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package wtf.villain.mammoth.platform.packetevents;
+
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerInfoUpdate;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import net.kyori.adventure.text.Component;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.villain.mammoth.platform.GameFeature;
+import wtf.villain.mammoth.platform.MammothChangeSet;
+import wtf.villain.mammoth.platform.UpdateAction;
+import wtf.villain.mammoth.template.MammothEntry;
+import wtf.villain.mammoth.utils.TextureProperty;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static net.kyori.adventure.text.Component.empty;
+
+/**
+ * A {@link MammothPacketEventsProvider provider} encoding the tab list packets straight into Netty buffers,
+ * without creating PacketEvents wrappers.
+ *
+ * <p>Every baked entry encodes its fragment (the uuid of the entry followed by the data of the update actions)
+ * only once per set of actions, and every packet containing the entry shares the fragment as a
+ * {@link ByteBuf#retainedSlice() retained slice}. Baked entries are cached by their {@link MammothEntry entry} and
+ * reused until the entry changes, so their fragments are only encoded again once they're outdated. Entries of shared
+ * templates are therefore encoded once per render, no matter how many players receive them. Snapshots are copied
+ * into a single packet, which is sent as a {@link ByteBuf#retainedDuplicate() retained duplicate}.</p>
+ *
+ * <p>Player info packets are only encoded on servers supporting {@link GameFeature#SEPARATE_INFO_PACKETS},
+ * older servers fall back to the PacketEvents wrappers. Header and footer packets are encoded on every version.</p>
+ */
+@ApiStatus.Experimental
+public class MammothEncodedPacketEventsProvider extends MammothPacketEventsProvider {
+    private static final int ADD_PLAYER = 1 << WrapperPlayServerPlayerInfoUpdate.Action.ADD_PLAYER.ordinal();
+    private static final int UPDATE_LISTED = 1 << WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LISTED.ordinal();
+    private static final int UPDATE_LATENCY = 1 << WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LATENCY.ordinal();
+    private static final int UPDATE_DISPLAY_NAME = 1 << WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_DISPLAY_NAME.ordinal();
+
+    // Added entries have to be listed, and their latency and display name have to be set as well
+    private static final int ADD = ADD_PLAYER | UPDATE_LISTED | UPDATE_LATENCY | UPDATE_DISPLAY_NAME;
+
+    private static final List<UpdateAction> UPDATE_ACTIONS = List.of(UpdateAction.UPDATE_NAME, UpdateAction.UPDATE_LATENCY);
+
+    private final ByteBufAllocator allocator;
+    private final int infoUpdateId;
+    private final int infoRemoveId;
+    private final int headerAndFooterId;
+
+    public MammothEncodedPacketEventsProvider(@NotNull PacketEventsAPI<?> api) {
+        this(api, MammothComponentCache.DEFAULT_MAXIMUM_SIZE, false);
+    }
+
+    /**
+     * Creates a new provider.
+     *
+     * @param api                the PacketEvents instance
+     * @param componentCacheSize the maximum amount of cached components
+     * @param batched            if the packets of an update should be flushed at once
+     * @see MammothPacketEventsProvider#MammothPacketEventsProvider(PacketEventsAPI, int, boolean)
+     */
+    public MammothEncodedPacketEventsProvider(@NotNull PacketEventsAPI<?> api, int componentCacheSize, boolean batched) {
+        super(api, componentCacheSize, batched);
+        this.allocator = ByteBufAllocator.DEFAULT;
+
+        ClientVersion version = api.getServerManager().getVersion().toClientVersion();
+        this.infoUpdateId = PacketType.Play.Server.PLAYER_INFO_UPDATE.getId(version);
+        this.infoRemoveId = PacketType.Play.Server.PLAYER_INFO_REMOVE.getId(version);
+        this.headerAndFooterId = PacketType.Play.Server.PLAYER_LIST_HEADER_AND_FOOTER.getId(version);
+    }
+
+    @Override
+    @NotNull
+    public Object bakeEntry(@NotNull MammothEntry entry, @NotNull Set<GameFeature> gameFeatures) {
+        if (!gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
+            return super.bakeEntry(entry, gameFeatures);
+        }
+
+        // Unchanged entries keep their fragments, which might still be sent by other viewers, so they're never changed
+        if (entry.baked() instanceof EncodedEntry cached && cached.skin == entry.currentSkin()
+            && cached.ping == entry.currentPing() && cached.text == entry.currentText()) {
+            return cached;
+        }
+
+        // Fragments are encoded lazily, as most entries are only sent with a single set of actions
+        EncodedEntry encoded = new EncodedEntry(entry.uuid(), entry.name(), entry.currentSkin(), entry.currentPing(), entry.currentText());
+        entry.setBaked(encoded);
+        return encoded;
+    }
+
+    @Override
+    public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull UpdateAction action, @NotNull Collection<Object> entries) {
+        if (!gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
+            super.send(uuid, gameFeatures, action, entries);
+        } else if (action == UpdateAction.REMOVE) {
+            this.sendInfoRemove(uuid, entries);
+        } else {
+            this.sendInfoUpdate(uuid, mask(action), entries);
+        }
+    }
+
+    @Override
+    public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull MammothChangeSet changes) {
+        if (!gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
+            super.send(uuid, gameFeatures, changes);
+            return;
+        }
+
+        // Added entries carry their whole profile, so they're never merged with the entries which are only updated
+        List<Object> added = changes.entries(UpdateAction.ADD);
+
+        if (!added.isEmpty()) {
+            this.sendInfoUpdate(uuid, ADD, added);
+        }
+
+        // Since 1.19.3 a single packet can carry multiple actions, every updated entry is updated with all of them
+        int mask = 0;
+        Set<Object> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (UpdateAction action : UPDATE_ACTIONS) {
+            List<Object> baked = changes.entries(action);
+
+            if (!baked.isEmpty()) {
+                mask |= mask(action);
+                entries.addAll(baked);
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            this.sendInfoUpdate(uuid, mask, entries);
+        }
+    }
+
+    @Override
+    @NotNull
+    public Object bakeSnapshot(@NotNull Set<GameFeature> gameFeatures, @NotNull List<Object> entries) {
+        if (!gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
+            return super.bakeSnapshot(gameFeatures, entries);
+        }
+
+        List<ByteBuf> fragments = new ArrayList<>(entries.size());
+        int size = 16;
+
+        for (Object entry : entries) {
+            ByteBuf fragment = ((EncodedEntry) entry).fragment(ADD);
+            fragments.add(fragment);
+            size += fragment.readableBytes();
+        }
+
+        // The fragments are copied, so the snapshot is a plain heap buffer without references to release
+        ByteBuf packet = Unpooled.buffer(size);
+        writeVarInt(packet, this.infoUpdateId);
+        packet.writeByte(ADD);
+        writeVarInt(packet, entries.size());
+
+        for (ByteBuf fragment : fragments) {
+            packet.writeBytes(fragment, fragment.readerIndex(), fragment.readableBytes());
+        }
+
+        return packet;
+    }
+
+    @Override
+    public void sendSnapshot(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull Object snapshot) {
+        if (!gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
+            super.sendSnapshot(uuid, gameFeatures, snapshot);
+            return;
+        }
+
+        this.sendBuffer(uuid, ((ByteBuf) snapshot).retainedDuplicate());
+    }
+
+    @Override
+    public void sendHeaderAndFooter(@NotNull UUID uuid, @Nullable Component header, @Nullable Component footer) {
+        ByteBuf buffer = this.allocator.ioBuffer();
+        writeVarInt(buffer, this.headerAndFooterId);
+
+        PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(buffer);
+        this.componentCache().write(wrapper, header != null ? header : empty(), wrapper::writeComponent);
+        this.componentCache().write(wrapper, footer != null ? footer : empty(), wrapper::writeComponent);
+
+        this.sendBuffer(uuid, buffer);
+    }
+
+    private void sendInfoUpdate(@NotNull UUID uuid, int mask, @NotNull Collection<Object> entries) {
+        ByteBuf header = this.allocator.ioBuffer(16);
+        writeVarInt(header, this.infoUpdateId);
+        header.writeByte(mask);
+        writeVarInt(header, entries.size());
+
+        CompositeByteBuf packet = this.allocator.compositeBuffer(entries.size() + 1);
+        packet.addComponent(true, header);
+
+        for (Object entry : entries) {
+            packet.addComponent(true, ((EncodedEntry) entry).fragment(mask).retainedSlice());
+        }
+
+        this.sendBuffer(uuid, packet);
+    }
+
+    private void sendInfoRemove(@NotNull UUID uuid, @NotNull Collection<Object> entries) {
+        ByteBuf buffer = this.allocator.ioBuffer(8 + entries.size() * 16);
+        writeVarInt(buffer, this.infoRemoveId);
+        writeVarInt(buffer, entries.size());
+
+        for (Object entry : entries) {
+            UUID entryUuid = ((EncodedEntry) entry).uuid;
+            buffer.writeLong(entryUuid.getMostSignificantBits());
+            buffer.writeLong(entryUuid.getLeastSignificantBits());
+        }
+
+        this.sendBuffer(uuid, buffer);
+    }
+
+    private static int mask(@NotNull UpdateAction action) {
+        return switch (action) {
+            case ADD -> ADD;
+            case UPDATE_NAME -> UPDATE_DISPLAY_NAME;
+            case UPDATE_LATENCY -> UPDATE_LATENCY;
+            default -> throw new IllegalArgumentException("unreachable");
+        };
+    }
+
+    private static void writeVarInt(@NotNull ByteBuf buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer.writeByte(value);
+    }
+
+    /**
+     * A baked entry, holding its encoded fragments.
+     *
+     * <p>The fragments are heap buffers which are never released, they're collected with the entry.</p>
+     */
+    private final class EncodedEntry {
+        // Adding implies every other action, so only four sets of actions can occur
+        private static final int FRAGMENTS = 4;
+
+        private final UUID uuid;
+        private final String name;
+        private final TextureProperty skin;
+        private final int ping;
+        private final Component text;
+        private final AtomicReferenceArray<ByteBuf> fragments;
+
+        private EncodedEntry(@NotNull UUID uuid, @NotNull String name, @NotNull TextureProperty skin, int ping, @Nullable Component text) {
+            this.uuid = uuid;
+            this.name = name;
+            this.skin = skin;
+            this.ping = ping;
+            this.text = text;
+            this.fragments = new AtomicReferenceArray<>(FRAGMENTS);
+        }
+
+        @NotNull
+        private ByteBuf fragment(int mask) {
+            int index = (mask & ADD_PLAYER) != 0 ? 0 : ((mask & UPDATE_DISPLAY_NAME) != 0 ? 1 : 0) | ((mask & UPDATE_LATENCY) != 0 ? 2 : 0);
+            ByteBuf fragment = this.fragments.get(index);
+
+            if (fragment == null) {
+                // Players receiving the entry at the same time might encode it twice, only one fragment is kept
+                fragment = this.encode(index == 0 ? ADD : mask);
+
+                if (!this.fragments.compareAndSet(index, null, fragment)) {
+                    fragment = this.fragments.get(index);
+                }
+            }
+
+            return fragment;
+        }
+
+        @NotNull
+        private ByteBuf encode(int mask) {
+            ByteBuf buffer = Unpooled.buffer();
+            PacketWrapper<?> wrapper = PacketWrapper.createUniversalPacketWrapper(buffer);
+            wrapper.writeUUID(this.uuid);
+
+            if ((mask & ADD_PLAYER) != 0) {
+                wrapper.writeString(this.name, 16);
+                wrapper.writeVarInt(1);
+                wrapper.writeString("textures");
+                wrapper.writeString(this.skin.value());
+                wrapper.writeBoolean(true);
+                wrapper.writeString(this.skin.signature());
+            }
+
+            if ((mask & UPDATE_LISTED) != 0) {
+                wrapper.writeBoolean(true);
+            }
+
+            if ((mask & UPDATE_LATENCY) != 0) {
+                wrapper.writeVarInt(this.ping);
+            }
+
+            if ((mask & UPDATE_DISPLAY_NAME) != 0) {
+                wrapper.writeBoolean(this.text != null);
+
+                if (this.text != null) {
+                    MammothEncodedPacketEventsProvider.this.componentCache().write(wrapper, this.text, wrapper::writeComponent);
+                }
+            }
+
+            return buffer;
+        }
+    }
+}
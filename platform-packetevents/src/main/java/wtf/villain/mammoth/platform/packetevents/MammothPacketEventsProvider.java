@@ -2,15 +2,17 @@ package wtf.villain.mammoth.platform.packetevents;
 
 import com.github.retrooper.packetevents.PacketEventsAPI;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
-import com.github.retrooper.packetevents.protocol.player.TextureProperty;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerInfo;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerInfoRemove;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerInfoUpdate;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerListHeaderAndFooter;
+import io.netty.channel.Channel;
 import net.kyori.adventure.text.Component;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -19,6 +21,7 @@ import wtf.villain.mammoth.platform.*;
 import wtf.villain.mammoth.template.MammothEntry;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static net.kyori.adventure.text.Component.empty;
 
@@ -26,10 +29,36 @@ import static net.kyori.adventure.text.Component.empty;
 public class MammothPacketEventsProvider implements PlatformProvider {
     private final PacketEventsAPI<?> api;
     private final Set<GameFeature> supportedFeatures;
+    private final MammothBakeCache bakeCache;
+    private final MammothComponentCache componentCache;
+    private final boolean batched;
+    private final Set<UUID> unflushed;
 
     public MammothPacketEventsProvider(@NotNull PacketEventsAPI<?> api) {
+        this(api, MammothComponentCache.DEFAULT_MAXIMUM_SIZE, false);
+    }
+
+    public MammothPacketEventsProvider(@NotNull PacketEventsAPI<?> api, int componentCacheSize) {
+        this(api, componentCacheSize, false);
+    }
+
+    /**
+     * Creates a new provider.
+     *
+     * <p>In batched mode, packets are written to the channel of the player without flushing it,
+     * and the channel gets flushed once after every update of the tab list.</p>
+     *
+     * @param api                the PacketEvents instance
+     * @param componentCacheSize the maximum amount of cached components
+     * @param batched            if the packets of an update should be flushed at once
+     */
+    public MammothPacketEventsProvider(@NotNull PacketEventsAPI<?> api, int componentCacheSize, boolean batched) {
         this.api = api;
         this.supportedFeatures = computeFeatures(api);
+        this.bakeCache = new MammothBakeCache();
+        this.componentCache = new MammothComponentCache(componentCacheSize);
+        this.batched = batched;
+        this.unflushed = ConcurrentHashMap.newKeySet();
     }
 
     private Set<GameFeature> computeFeatures(PacketEventsAPI<?> api) {
@@ -62,11 +91,17 @@ public class MammothPacketEventsProvider implements PlatformProvider {
     @Override
     @NotNull
     public Object bakeEntry(@NotNull MammothEntry entry, @NotNull Set<GameFeature> gameFeatures) {
-        UserProfile profile = new UserProfile(entry.uuid(), entry.name());
-        profile.setTextureProperties(List.of(new TextureProperty("textures", entry.currentSkin().value(), entry.currentSkin().signature())));
+        UserProfile profile = this.bakeCache.profile(entry);
+        Object cached = entry.baked();
 
+        // Baked objects might still be sent by other viewers, so they are never changed, only reused if nothing changed
         if (gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
-            return new WrapperPlayServerPlayerInfoUpdate.PlayerInfo(
+            if (cached instanceof WrapperPlayServerPlayerInfoUpdate.PlayerInfo info && info.getGameProfile() == profile
+                && info.getLatency() == entry.currentPing() && info.getDisplayName() == entry.currentText()) {
+                return info;
+            }
+
+            WrapperPlayServerPlayerInfoUpdate.PlayerInfo info = new WrapperPlayServerPlayerInfoUpdate.PlayerInfo(
                 profile,
                 true,
                 entry.currentPing(),
@@ -74,29 +109,149 @@ public class MammothPacketEventsProvider implements PlatformProvider {
                 entry.currentText(),
                 null
             );
+
+            entry.setBaked(info);
+            return info;
         } else {
-            return new WrapperPlayServerPlayerInfo.PlayerData(
+            if (cached instanceof WrapperPlayServerPlayerInfo.PlayerData data && data.getUserProfile() == profile
+                && data.getPing() == entry.currentPing() && data.getDisplayName() == entry.currentText()) {
+                return data;
+            }
+
+            WrapperPlayServerPlayerInfo.PlayerData data = new WrapperPlayServerPlayerInfo.PlayerData(
                 entry.currentText(),
                 profile,
                 GameMode.SURVIVAL,
                 entry.currentPing()
             );
+
+            entry.setBaked(data);
+            return data;
         }
     }
 
     @Override
     public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull UpdateAction action, @NotNull Collection<Object> entries) {
-        this.api.getPlayerManager().sendPacket(uuid, this.createInfoPacket(gameFeatures, action, entries));
+        this.sendPacket(uuid, this.createInfoPacket(gameFeatures, action, entries));
+    }
+
+    @Override
+    public void send(@NotNull UUID uuid, @NotNull Set<GameFeature> gameFeatures, @NotNull MammothChangeSet changes) {
+        if (!gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
+            PlatformProvider.super.send(uuid, gameFeatures, changes);
+            return;
+        }
+
+        // Added entries carry their whole profile, so they're never merged with the entries which are only updated
+        List<Object> added = changes.entries(UpdateAction.ADD);
+
+        if (!added.isEmpty()) {
+            this.sendPacket(uuid, this.infoUpdatePacket(EnumSet.copyOf(updateActions(UpdateAction.ADD)), this.cast(added)));
+        }
+
+        // Since 1.19.3 a single packet can carry multiple actions, every updated entry is updated with all of them
+        EnumSet<WrapperPlayServerPlayerInfoUpdate.Action> actions = EnumSet.noneOf(WrapperPlayServerPlayerInfoUpdate.Action.class);
+        Set<Object> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (UpdateAction action : List.of(UpdateAction.UPDATE_NAME, UpdateAction.UPDATE_LATENCY)) {
+            List<Object> baked = changes.entries(action);
+
+            if (!baked.isEmpty()) {
+                actions.addAll(updateActions(action));
+                entries.addAll(baked);
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            List<WrapperPlayServerPlayerInfoUpdate.PlayerInfo> updateInfo = this.cast(new ArrayList<>(entries));
+            this.sendPacket(uuid, this.infoUpdatePacket(actions, updateInfo));
+        }
     }
 
     @Override
     public void sendHeaderAndFooter(@NotNull UUID uuid, @Nullable Component header, @Nullable Component footer) {
-        this.api.getPlayerManager().sendPacket(uuid, new WrapperPlayServerPlayerListHeaderAndFooter(
+        this.sendPacket(uuid, this.headerAndFooterPacket(
             header != null ? header : empty(),
             footer != null ? footer : empty()
         ));
     }
 
+    @Override
+    public int latency(@NotNull UUID uuid) {
+        return this.api.getPlayerManager().getPing(uuid);
+    }
+
+    @Override
+    public boolean writable(@NotNull UUID uuid) {
+        // Channels which are gone don't pile up anything, and are handled when sending
+        return !(this.api.getPlayerManager().getChannel(uuid) instanceof Channel channel) || channel.isWritable();
+    }
+
+    @Override
+    public void flush(@NotNull UUID uuid) {
+        // Only the channels which were written to are flushed
+        if (this.batched && this.unflushed.remove(uuid)) {
+            Object channel = this.api.getPlayerManager().getChannel(uuid);
+
+            if (channel != null) {
+                ChannelHelper.flush(channel);
+            }
+        }
+    }
+
+    /**
+     * Returns the cache of the encoded display names, headers and footers.
+     *
+     * @return the component cache
+     */
+    @NotNull
+    public MammothComponentCache componentCache() {
+        return this.componentCache;
+    }
+
+    private void sendPacket(@NotNull UUID uuid, @NotNull PacketWrapper<?> packet) {
+        if (this.batched) {
+            this.api.getPlayerManager().writePacket(uuid, packet);
+            this.unflushed.add(uuid);
+        } else {
+            this.api.getPlayerManager().sendPacket(uuid, packet);
+        }
+    }
+
+    /**
+     * Sends an encoded packet for the player, following the batching mode of this provider.
+     *
+     * <p>The buffer must contain the packet id and the packet data, and gets released by this method.</p>
+     *
+     * @param uuid   the player
+     * @param buffer the buffer of the packet
+     */
+    protected final void sendBuffer(@NotNull UUID uuid, @NotNull Object buffer) {
+        Object channel = this.api.getPlayerManager().getChannel(uuid);
+
+        if (channel == null) {
+            ByteBufHelper.release(buffer);
+            return;
+        }
+
+        if (this.batched) {
+            this.api.getProtocolManager().writePacket(channel, buffer);
+            this.unflushed.add(uuid);
+        } else {
+            this.api.getProtocolManager().sendPacket(channel, buffer);
+        }
+    }
+
+    /**
+     * Returns the PacketEvents instance of this provider.
+     *
+     * @return the PacketEvents instance
+     */
+    @NotNull
+    protected final PacketEventsAPI<?> api() {
+        return this.api;
+    }
+
     @NotNull
     private PacketWrapper<?> createInfoPacket(@NotNull Set<GameFeature> gameFeatures, @NotNull UpdateAction action, @NotNull Collection<Object> bakedEntries) {
         if (gameFeatures.contains(GameFeature.SEPARATE_INFO_PACKETS)) {
@@ -105,14 +260,52 @@ public class MammothPacketEventsProvider implements PlatformProvider {
             if (action == UpdateAction.REMOVE) {
                 return new WrapperPlayServerPlayerInfoRemove(updateInfo.stream().map(info -> info.getGameProfile().getUUID()).toList());
             } else {
-                return new WrapperPlayServerPlayerInfoUpdate(updateAction(action), updateInfo);
+                return this.infoUpdatePacket(EnumSet.of(updateAction(action)), updateInfo);
             }
         } else {
             List<WrapperPlayServerPlayerInfo.PlayerData> updateInfo = this.cast(bakedEntries);
-            return new WrapperPlayServerPlayerInfo(action(action), updateInfo);
+            return this.infoPacket(action(action), updateInfo);
         }
     }
 
+    // The packets below write their components through the component cache
+
+    @NotNull
+    private PacketWrapper<?> infoUpdatePacket(@NotNull EnumSet<WrapperPlayServerPlayerInfoUpdate.Action> actions, @NotNull List<WrapperPlayServerPlayerInfoUpdate.PlayerInfo> entries) {
+        MammothComponentCache componentCache = this.componentCache;
+
+        return new WrapperPlayServerPlayerInfoUpdate(actions, entries) {
+            @Override
+            public void writeComponent(Component component) {
+                componentCache.write(this, component, super::writeComponent);
+            }
+        };
+    }
+
+    @NotNull
+    private PacketWrapper<?> infoPacket(@NotNull WrapperPlayServerPlayerInfo.Action action, @NotNull List<WrapperPlayServerPlayerInfo.PlayerData> entries) {
+        MammothComponentCache componentCache = this.componentCache;
+
+        return new WrapperPlayServerPlayerInfo(action, entries) {
+            @Override
+            public void writeComponent(Component component) {
+                componentCache.write(this, component, super::writeComponent);
+            }
+        };
+    }
+
+    @NotNull
+    private PacketWrapper<?> headerAndFooterPacket(@NotNull Component header, @NotNull Component footer) {
+        MammothComponentCache componentCache = this.componentCache;
+
+        return new WrapperPlayServerPlayerListHeaderAndFooter(header, footer) {
+            @Override
+            public void writeComponent(Component component) {
+                componentCache.write(this, component, super::writeComponent);
+            }
+        };
+    }
+
     @NotNull
     private WrapperPlayServerPlayerInfo.Action action(@NotNull UpdateAction action) {
         return switch (action) {
@@ -133,6 +326,22 @@ public class MammothPacketEventsProvider implements PlatformProvider {
         };
     }
 
+    @NotNull
+    private Set<WrapperPlayServerPlayerInfoUpdate.Action> updateActions(@NotNull UpdateAction action) {
+        return switch (action) {
+            // Added entries have to be listed, and their latency and display name have to be set as well
+            case ADD -> EnumSet.of(
+                WrapperPlayServerPlayerInfoUpdate.Action.ADD_PLAYER,
+                WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LISTED,
+                WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LATENCY,
+                WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_DISPLAY_NAME
+            );
+            case UPDATE_NAME -> EnumSet.of(WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_DISPLAY_NAME);
+            case UPDATE_LATENCY -> EnumSet.of(WrapperPlayServerPlayerInfoUpdate.Action.UPDATE_LATENCY);
+            default -> throw new IllegalArgumentException("unreachable");
+        };
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T cast(@NotNull Object object) {
         return (T) object;
@@ -2,7 +2,8 @@ rootProject.name = "mammoth"
 
 listOf(
     "common",
-    "platform-packetevents"
+    "platform-packetevents",
+    "benchmarks"
 ).forEach {
     include("mammoth-$it")
     project(":mammoth-$it").projectDir = file(it)
@@ -13,11 +14,21 @@ dependencyResolutionManagement {
         create("libs") {
             version("adventure", "4.14.0")
             version("packetevents", "2.2.0")
+            version("jmh", "1.37")
+            version("netty", "4.1.97.Final")
+            version("junit", "5.10.0")
+            version("junit-platform", "1.10.0")
 
             library("adventure-api", "net.kyori", "adventure-api").versionRef("adventure")
             library("adventure-text-gson", "net.kyori", "adventure-text-serializer-gson").versionRef("adventure")
             library("adventure-text-legacy", "net.kyori", "adventure-text-serializer-legacy").versionRef("adventure")
             library("packetevents", "com.github.retrooper.packetevents", "api").versionRef("packetevents")
+            library("netty-buffer", "io.netty", "netty-buffer").versionRef("netty")
+            library("netty-transport", "io.netty", "netty-transport").versionRef("netty")
+            library("jmh-core", "org.openjdk.jmh", "jmh-core").versionRef("jmh")
+            library("jmh-annprocess", "org.openjdk.jmh", "jmh-generator-annprocess").versionRef("jmh")
+            library("junit-jupiter", "org.junit.jupiter", "junit-jupiter").versionRef("junit")
+            library("junit-launcher", "org.junit.platform", "junit-platform-launcher").versionRef("junit-platform")
 
             bundle("adventure-serializers", listOf("adventure-text-gson", "adventure-text-legacy"))
         }